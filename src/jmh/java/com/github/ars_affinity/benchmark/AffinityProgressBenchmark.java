@@ -0,0 +1,85 @@
+package com.github.ars_affinity.benchmark;
+
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.perk.PointCalculationHelper;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progress calculation and application, as done for every school a resolved spell touches.
+ * Players are rebuilt before each iteration so progress doesn't drift to 100% over a run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AffinityProgressBenchmark {
+
+    private static final int PLAYER_COUNT = 64;
+    private static final SpellSchool[] SCHOOLS = SchoolRelationshipHelper.ALL_SCHOOLS;
+    private static final float[] SPELL_MANA = {5.0f, 15.0f, 40.0f, 90.0f, 250.0f};
+
+    @Param({"0.1", "0.5", "0.9"})
+    public float progress;
+
+    private PlayerAffinityData[] players;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        List<PlayerAffinityData> created = SyntheticPlayers.create(PLAYER_COUNT, progress, 42L);
+        players = created.toArray(new PlayerAffinityData[0]);
+        cursor = 0;
+    }
+
+    @Benchmark
+    public float calculatePercentageIncrease() {
+        int i = cursor++;
+        PlayerAffinityData data = players[i % PLAYER_COUNT];
+        SpellSchool school = SCHOOLS[i % SCHOOLS.length];
+        return PointCalculationHelper.calculatePercentageIncrease(
+            SPELL_MANA[i % SPELL_MANA.length],
+            data.getSchoolPercentage(school),
+            data.getTotalPointsAcrossAllSchools());
+    }
+
+    @Benchmark
+    public int addSchoolProgress() {
+        int i = cursor++;
+        PlayerAffinityData data = players[i % PLAYER_COUNT];
+        SpellSchool school = SCHOOLS[i % SCHOOLS.length];
+        return data.addSchoolProgress(school, 0.001f);
+    }
+
+    /**
+     * Both steps together, which is what applying a spell's progress costs per school.
+     */
+    @Benchmark
+    public int calculateAndAddProgress() {
+        int i = cursor++;
+        PlayerAffinityData data = players[i % PLAYER_COUNT];
+        SpellSchool school = SCHOOLS[i % SCHOOLS.length];
+        float increase = PointCalculationHelper.calculatePercentageIncrease(
+            SPELL_MANA[i % SPELL_MANA.length],
+            data.getSchoolPercentage(school),
+            data.getTotalPointsAcrossAllSchools());
+        return data.addSchoolProgress(school, increase);
+    }
+}
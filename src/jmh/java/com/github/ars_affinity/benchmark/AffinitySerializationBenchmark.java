@@ -0,0 +1,96 @@
+package com.github.ars_affinity.benchmark;
+
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.common.network.SyncPlayerAffinityDataPacket;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading player affinity data, and the full sync packet sent on login, respawn and allocation
+ * changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AffinitySerializationBenchmark {
+
+    private static final int PLAYER_COUNT = 16;
+    private static final HolderLookup.Provider REGISTRIES = RegistryAccess.EMPTY;
+
+    @Param({"0.1", "0.5", "1.0"})
+    public float progress;
+
+    private PlayerAffinityData[] players;
+    private CompoundTag[] tags;
+    private FriendlyByteBuf[] encodedPackets;
+    private SyncPlayerAffinityDataPacket[] packets;
+    private PlayerAffinityData target;
+    private FriendlyByteBuf output;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<PlayerAffinityData> created = SyntheticPlayers.create(PLAYER_COUNT, progress, 42L);
+        players = created.toArray(new PlayerAffinityData[0]);
+        tags = new CompoundTag[PLAYER_COUNT];
+        encodedPackets = new FriendlyByteBuf[PLAYER_COUNT];
+        packets = new SyncPlayerAffinityDataPacket[PLAYER_COUNT];
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            tags[i] = players[i].serializeNBT(REGISTRIES);
+
+            // Same layout SyncPlayerAffinityDataPacket#encode writes
+            FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            buffer.writeVarInt(i);
+            buffer.writeNbt(tags[i]);
+            encodedPackets[i] = buffer;
+            packets[i] = new SyncPlayerAffinityDataPacket(buffer);
+        }
+        target = new PlayerAffinityData();
+        output = new FriendlyByteBuf(Unpooled.buffer());
+    }
+
+    @Benchmark
+    public CompoundTag serializeNBT() {
+        return players[cursor++ % PLAYER_COUNT].serializeNBT(REGISTRIES);
+    }
+
+    @Benchmark
+    public PlayerAffinityData deserializeNBT() {
+        target.deserializeNBT(REGISTRIES, tags[cursor++ % PLAYER_COUNT]);
+        return target;
+    }
+
+    @Benchmark
+    public int encodeSyncPacket() {
+        output.clear();
+        packets[cursor++ % PLAYER_COUNT].encode(output);
+        return output.writerIndex();
+    }
+
+    @Benchmark
+    public SyncPlayerAffinityDataPacket decodeSyncPacket() {
+        FriendlyByteBuf buffer = encodedPackets[cursor++ % PLAYER_COUNT];
+        buffer.readerIndex(0);
+        return new SyncPlayerAffinityDataPacket(buffer);
+    }
+}
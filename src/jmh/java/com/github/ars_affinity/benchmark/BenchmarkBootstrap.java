@@ -0,0 +1,56 @@
+package com.github.ars_affinity.benchmark;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import com.github.ars_affinity.perk.AffinityPerkManager;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import net.neoforged.fml.config.IConfigSpec;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sets up just enough of the mod outside the game for the benchmarks: server config defaults and the
+ * perk trees bundled in the jar, loaded through {@link PerkTreeManager} and {@link AffinityPerkManager}
+ * the same way a fresh install loads them.
+ */
+final class BenchmarkBootstrap {
+
+    private static boolean initialized;
+
+    private BenchmarkBootstrap() {}
+
+    static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+
+        try {
+            // Empty game directory, so the managers copy the bundled perk trees into its config folder
+            Path gameDir = Files.createTempDirectory("ars_affinity_jmh");
+            FMLPaths.loadAbsolutePaths(gameDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        CommentedConfig config = CommentedConfig.inMemory();
+        ArsAffinityConfig.SERVER_CONFIG.correct(config);
+        ArsAffinityConfig.SERVER_CONFIG.acceptConfig(new IConfigSpec.ILoadedConfig() {
+            @Override
+            public CommentedConfig config() {
+                return config;
+            }
+
+            @Override
+            public void save() {
+            }
+        });
+
+        PerkTreeManager.loadPerkTrees();
+        AffinityPerkManager.loadConfig();
+        initialized = true;
+    }
+}
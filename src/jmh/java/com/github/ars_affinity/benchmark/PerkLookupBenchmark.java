@@ -0,0 +1,58 @@
+package com.github.ars_affinity.benchmark;
+
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.perk.AffinityPerk;
+import com.github.ars_affinity.perk.AffinityPerkHelper;
+import com.github.ars_affinity.perk.AffinityPerkType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perk lookups done by the event handlers on every hit, tick and spell cast. Looks up every perk type in
+ * turn, so both allocated and missing perks are covered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerkLookupBenchmark {
+
+    private static final int PLAYER_COUNT = 64;
+    private static final AffinityPerkType[] PERK_TYPES = AffinityPerkType.values();
+
+    @Param({"0.1", "0.5", "1.0"})
+    public float progress;
+
+    private PlayerAffinityData[] players;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        players = SyntheticPlayers.create(PLAYER_COUNT, progress, 42L).toArray(new PlayerAffinityData[0]);
+    }
+
+    @Benchmark
+    public AffinityPerk getAllocatedPerk() {
+        int i = cursor++;
+        return AffinityPerkHelper.getAllocatedPerk(players[i % PLAYER_COUNT], PERK_TYPES[i % PERK_TYPES.length]);
+    }
+
+    @Benchmark
+    public boolean hasActivePerk() {
+        int i = cursor++;
+        return AffinityPerkHelper.hasActivePerk(players[i % PLAYER_COUNT], PERK_TYPES[i % PERK_TYPES.length]);
+    }
+}
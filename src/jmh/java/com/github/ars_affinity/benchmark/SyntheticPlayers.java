@@ -0,0 +1,77 @@
+package com.github.ars_affinity.benchmark;
+
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.perk.PerkNode;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds affinity data for players that don't exist, with points and perk allocations taken from the
+ * loaded perk trees. Generation is seeded so every run benchmarks the same players.
+ */
+final class SyntheticPlayers {
+
+    private SyntheticPlayers() {}
+
+    /**
+     * @param count    Number of players to create
+     * @param progress Fraction of each school's maximum points a player has, 0.0 to 1.0
+     * @param seed     Seed for the per-player variation in points and allocation order
+     */
+    static List<PlayerAffinityData> create(int count, float progress, long seed) {
+        BenchmarkBootstrap.init();
+        Random random = new Random(seed);
+        List<PlayerAffinityData> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(create(progress, random));
+        }
+        return players;
+    }
+
+    private static PlayerAffinityData create(float progress, Random random) {
+        PlayerAffinityData data = new PlayerAffinityData();
+        for (SpellSchool school : SchoolRelationshipHelper.ALL_SCHOOLS) {
+            int maxPoints = PerkTreeManager.getMaxPointsForSchool(school);
+            // Vary players around the target so schools don't all sit on the same threshold
+            float schoolProgress = Math.max(0.0f, Math.min(1.0f, progress + (random.nextFloat() - 0.5f) * 0.2f));
+            int points = Math.round(maxPoints * schoolProgress);
+            data.setSchoolPercentage(school, schoolProgress * 100.0f);
+            data.setSchoolPoints(school, points);
+            allocate(data, school, random);
+        }
+        data.setDirty(false);
+        return data;
+    }
+
+    /**
+     * Spend a school's points on perks the way a player would: roots first, then whatever the
+     * allocated perks have unlocked, in a random order within each tier.
+     */
+    private static void allocate(PlayerAffinityData data, SpellSchool school, Random random) {
+        List<PerkNode> remaining = new ArrayList<>(PerkTreeManager.getSchoolNodes(school).values());
+        remaining.sort(Comparator.comparing(PerkNode::getId));
+        Collections.shuffle(remaining, random);
+        remaining.sort(Comparator.comparingInt(PerkNode::getTier));
+
+        boolean allocated = true;
+        while (allocated && data.getAvailablePoints(school) > 0) {
+            allocated = false;
+            Iterator<PerkNode> iterator = remaining.iterator();
+            while (iterator.hasNext()) {
+                if (data.allocatePerk(iterator.next())) {
+                    iterator.remove();
+                    allocated = true;
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.github.ars_affinity.capability.ActiveAbilityCapability;
 import com.github.ars_affinity.capability.ActiveAbilityProvider;
 import com.github.ars_affinity.capability.PlayerAffinityDataCapability;
 import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.capability.PlayerStateStores;
 import com.github.ars_affinity.capability.WetTicksCapability;
 import com.github.ars_affinity.capability.WetTicksProvider;
 import com.github.ars_affinity.client.ArsAffinityClient;
@@ -11,14 +12,21 @@ import com.github.ars_affinity.command.ArsAffinityCommands;
 import com.github.ars_affinity.config.ArsAffinityConfig;
 import com.github.ars_affinity.event.*;
 import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.perk.PerkTreeReloader;
+import com.github.ars_affinity.perk.ScalingTables;
 import com.github.ars_affinity.registry.ModCreativeTabs;
 import com.github.ars_affinity.registry.ModDataComponents;
 import com.github.ars_affinity.registry.ModPotions;
 import com.github.ars_affinity.common.ritual.RitualAmnesia;
 import com.hollingsworth.arsnouveau.setup.registry.APIRegistry;
 import com.github.ars_affinity.registry.ModSounds;
+import com.github.ars_affinity.util.GlyphBlacklistHelper;
+import com.github.ars_affinity.util.TickScheduler;
+import com.github.ars_affinity.util.metrics.HandlerMetrics;
+import com.github.ars_affinity.util.trace.AffinityTrace;
 import com.github.ars_affinity.common.network.Networking;
-import com.github.ars_affinity.common.network.SyncPlayerAffinityDataPacket;
+import com.github.ars_affinity.common.network.PerkTreeHashPacket;
+import com.github.ars_affinity.common.network.ParticleEffectBatcher;
 
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
@@ -64,6 +72,10 @@ public class ArsAffinity {
         ModCreativeTabs.TABS.register(modEventBus);
         ModSounds.SOUNDS.register(modEventBus);
         modEventBus.addListener(Networking::register);
+        modEventBus.addListener(GlyphBlacklistHelper::onConfigLoading);
+        modEventBus.addListener(GlyphBlacklistHelper::onConfigReloading);
+        modEventBus.addListener(ScalingTables::onConfigLoading);
+        modEventBus.addListener(ScalingTables::onConfigReloading);
         
         // Register ritual
         APIRegistry.registerRitual(new RitualAmnesia());
@@ -74,29 +86,41 @@ public class ArsAffinity {
 
         NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedIn);
         NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedOut);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerChangedDimension);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerRespawn);
         NeoForge.EVENT_BUS.addListener(this::onServerStopping);
         NeoForge.EVENT_BUS.addListener(this::onRegisterCommands);
-        NeoForge.EVENT_BUS.register(SchoolAffinityPointAllocatedEvents.class);
+        // Handlers are registered through HandlerMetrics so /ars-affinity stats can time them
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SchoolAffinityPointAllocatedEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, AffinityProgressAccumulator.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SpellContributionCache.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, AffinityPersistenceEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, AffinityLeaderboardEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, TickScheduler.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, ParticleEffectBatcher.class);
+        NeoForge.EVENT_BUS.register(HandlerMetrics.class);
+        NeoForge.EVENT_BUS.register(GlyphBlacklistHelper.class);
+        NeoForge.EVENT_BUS.register(PerkTreeReloader.class);
         
-        NeoForge.EVENT_BUS.register(PassiveLichFeastEvents.class);
-        NeoForge.EVENT_BUS.register(GhostStepEvents.class);
-        NeoForge.EVENT_BUS.register(DeflectionEvents.class);
-        NeoForge.EVENT_BUS.register(FieldAbilityTicker.class);
-        NeoForge.EVENT_BUS.register(FireThornsEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveManaTapEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveRottingGuiseEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveSoulspikeEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveStoneSkinEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveSummonDefenseEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveSummonHealthEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveSummoningPowerEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveUnstableSummoningEvents.class);
-        NeoForge.EVENT_BUS.register(SpellAmplificationEvents.class);
-        NeoForge.EVENT_BUS.register(PassiveHydrationEvents.class);
-        NeoForge.EVENT_BUS.register(SanctuaryEvents.class);
-        NeoForge.EVENT_BUS.register(SilencedEvents.class);
-        NeoForge.EVENT_BUS.register(SauceLibAttributeEvents.class);
-        NeoForge.EVENT_BUS.register(AffinityAdvancementEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveLichFeastEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, GhostStepEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, DeflectionEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, FieldAbilityTicker.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, FireThornsEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveManaTapEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveRottingGuiseEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveSoulspikeEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveStoneSkinEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveSummonDefenseEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveSummonHealthEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveSummoningPowerEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveUnstableSummoningEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SpellAmplificationEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, PassiveHydrationEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SanctuaryEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SilencedEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, SauceLibAttributeEvents.class);
+        HandlerMetrics.register(NeoForge.EVENT_BUS, AffinityAdvancementEvents.class);
 
 
 
@@ -153,28 +177,40 @@ public class ArsAffinity {
         ActiveAbilityProvider.loadPlayerData(event.getEntity());
         
         if (event.getEntity() instanceof ServerPlayer serverPlayer) {
-            var affinityData = PlayerAffinityDataProvider.getPlayerAffinityData(serverPlayer);
-            if (affinityData != null) {
-                SyncPlayerAffinityDataPacket syncPacket = 
-                    new SyncPlayerAffinityDataPacket(affinityData, serverPlayer);
-                Networking.sendToPlayerClient(syncPacket, serverPlayer);
-                LOGGER.debug("Synced affinity data to client for player {}", serverPlayer.getName().getString());
-            }
+            // The client must have the server's perk trees before reading allocations
+            Networking.sendToPlayerClient(new PerkTreeHashPacket(PerkTreeManager.getTree().getContentHash()), serverPlayer);
+            PlayerAffinityDataProvider.syncFullToClient(serverPlayer);
         }
     }
 
     private void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
         Player player = event.getEntity();
+        AffinityProgressAccumulator.flush(player);
         PlayerAffinityDataProvider.savePlayerData(player);
         WetTicksProvider.savePlayerWetTicks(player);
         ActiveAbilityProvider.savePlayerData(player);
         
         PlayerAffinityDataProvider.removePlayerData(player);
+        WetTicksProvider.removePlayerWetTicks(player);
         ActiveAbilityProvider.removePlayerData(player);
     }
     
+    private void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        PlayerStateStores.rebind(event.getEntity());
+    }
+    
+    private void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        PlayerStateStores.rebind(event.getEntity());
+    }
+    
     private void onServerStopping(ServerStoppingEvent event) {
-        PlayerAffinityDataProvider.saveAllData();
+        AffinityProgressAccumulator.flushAll();
+        AffinityProgressAccumulator.clear();
+        SpellContributionCache.clear();
+        AffinityTrace.reset();
+        TickScheduler.clear();
+        ParticleEffectBatcher.clear();
+        PlayerAffinityDataProvider.saveAllData(event.getServer());
         PlayerAffinityDataProvider.clearCache();
         WetTicksProvider.clearCache();
         ActiveAbilityProvider.saveAllData();
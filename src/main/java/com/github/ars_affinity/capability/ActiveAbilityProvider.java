@@ -5,56 +5,51 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.Player;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 public class ActiveAbilityProvider {
     
     public static final ResourceLocation IDENTIFIER = ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "active_ability_data");
     
-    private static final Map<UUID, ActiveAbilityData> playerDataCache = new HashMap<>();
-    
     public static ActiveAbilityData getActiveAbilityData(Player player) {
-        UUID playerId = player.getUUID();
+        return PlayerStateStores.ACTIVE_ABILITY.get(player);
+    }
+    
+    static ActiveAbilityData createActiveAbilityData(Player player) {
+        ActiveAbilityData newData = new ActiveAbilityData();
         
-        return playerDataCache.computeIfAbsent(playerId, id -> {
-            ActiveAbilityData newData = new ActiveAbilityData();
-            
-            CompoundTag playerData = player.getPersistentData();
-            String dataKey = "ars_affinity:active_ability_data";
-            
-            if (playerData.contains(dataKey)) {
-                CompoundTag abilityData = playerData.getCompound(dataKey);
-                if (abilityData != null && !abilityData.isEmpty()) {
-                    try {
-                        newData.deserializeNBT(player.level().registryAccess(), abilityData);
-                        ArsAffinity.LOGGER.debug("Loaded active ability data for player {}: {}", 
-                            player.getName().getString(), 
-                            newData.getActiveAbilityType());
-                    } catch (Exception e) {
-                        ArsAffinity.LOGGER.error("Failed to deserialize active ability data for player {}: {}", 
-                            player.getName().getString(), e.getMessage(), e);
-                    }
-                } else {
-                    ArsAffinity.LOGGER.debug("Empty active ability data found for player {}", player.getName().getString());
+        CompoundTag playerData = player.getPersistentData();
+        String dataKey = "ars_affinity:active_ability_data";
+        
+        if (playerData.contains(dataKey)) {
+            CompoundTag abilityData = playerData.getCompound(dataKey);
+            if (abilityData != null && !abilityData.isEmpty()) {
+                try {
+                    newData.deserializeNBT(player.level().registryAccess(), abilityData);
+                    ArsAffinity.LOGGER.debug("Loaded active ability data for player {}: {}", 
+                        player.getName().getString(), 
+                        newData.getActiveAbilityType());
+                } catch (Exception e) {
+                    ArsAffinity.LOGGER.error("Failed to deserialize active ability data for player {}: {}", 
+                        player.getName().getString(), e.getMessage(), e);
                 }
             } else {
-                ArsAffinity.LOGGER.debug("No existing active ability data found for player {}, creating new data", 
-                    player.getName().getString());
+                ArsAffinity.LOGGER.debug("Empty active ability data found for player {}", player.getName().getString());
             }
-            
-            return newData;
-        });
+        } else {
+            ArsAffinity.LOGGER.debug("No existing active ability data found for player {}, creating new data", 
+                player.getName().getString());
+        }
+        
+        return newData;
     }
     
     public static void loadPlayerData(Player player) {
-        getActiveAbilityData(player);
+        PlayerStateStores.ACTIVE_ABILITY.register(player);
     }
     
     public static void savePlayerData(Player player) {
-        UUID playerId = player.getUUID();
-        ActiveAbilityData data = playerDataCache.get(playerId);
+        ActiveAbilityData data = PlayerStateStores.ACTIVE_ABILITY.getIfPresent(player.getUUID());
         
         if (data != null && data.isDirty()) {
             CompoundTag playerData = player.getPersistentData();
@@ -77,20 +72,20 @@ public class ActiveAbilityProvider {
     }
     
     public static void saveAllData() {
-        ArsAffinity.LOGGER.debug("Saving all active ability data (cache size: {})", playerDataCache.size());
+        ArsAffinity.LOGGER.debug("Saving all active ability data (cache size: {})", PlayerStateStores.ACTIVE_ABILITY.size());
     }
     
     public static void clearCache() {
-        ArsAffinity.LOGGER.debug("Clearing active ability data cache (size: {})", playerDataCache.size());
-        playerDataCache.clear();
+        ArsAffinity.LOGGER.debug("Clearing active ability data cache (size: {})", PlayerStateStores.ACTIVE_ABILITY.size());
+        PlayerStateStores.ACTIVE_ABILITY.clear();
     }
     
     public static int getCacheSize() {
-        return playerDataCache.size();
+        return PlayerStateStores.ACTIVE_ABILITY.size();
     }
     
     public static void removePlayerData(UUID playerId) {
-        ActiveAbilityData removed = playerDataCache.remove(playerId);
+        ActiveAbilityData removed = PlayerStateStores.ACTIVE_ABILITY.unregister(playerId);
         if (removed != null) {
             ArsAffinity.LOGGER.debug("Removed active ability data from cache for UUID: {}", playerId);
         }
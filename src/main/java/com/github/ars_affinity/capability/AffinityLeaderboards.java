@@ -0,0 +1,327 @@
+package com.github.ars_affinity.capability;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.perk.PerkAllocation;
+import com.github.ars_affinity.perk.PerkNode;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.neoforged.neoforge.common.util.FakePlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Aggregates over every player in the {@link AffinityWorldStore}, kept up to date as records change so
+ * leaderboards and server statistics never scan players.
+ * <p>
+ * Each player's last indexed points and allocations are kept; an update only applies the difference to
+ * per-school rankings ordered by points, per-school running totals, per-school counts of players by their
+ * highest allocated tier, and per-node allocation counts. Stored in {@code data/ars_affinity_leaderboards.dat}
+ * and rebuilt from the world store if missing. Server thread only.
+ */
+public class AffinityLeaderboards extends SavedData {
+
+    public static final String DATA_NAME = ArsAffinity.MOD_ID + "_leaderboards";
+
+    private static final int INDEX_VERSION = 1;
+    private static final int SCHOOL_COUNT = SchoolRelationshipHelper.ALL_SCHOOLS.length;
+
+    /**
+     * A player's place in a school ranking.
+     */
+    public record RankedPlayer(UUID playerId, String name, int points) {
+    }
+
+    private record Ranked(int points, UUID playerId) {
+    }
+
+    // Most points first; the UUID only keeps entries with equal points distinct
+    private static final Comparator<Ranked> RANKING = Comparator.comparingInt(Ranked::points).reversed()
+        .thenComparing(Ranked::playerId);
+
+    private static final class Indexed {
+        String name;
+        final int[] points = new int[SCHOOL_COUNT];
+        final int[] highestTiers = new int[SCHOOL_COUNT];
+        String[] perkIds = new String[0];
+    }
+
+    public static final SavedData.Factory<AffinityLeaderboards> FACTORY =
+        new SavedData.Factory<>(AffinityLeaderboards::new, AffinityLeaderboards::read, null);
+
+    private final Map<UUID, Indexed> players = new HashMap<>();
+    private final List<TreeSet<Ranked>> rankings = new ArrayList<>(SCHOOL_COUNT);
+    private final long[] pointTotals = new long[SCHOOL_COUNT];
+    // Players per highest allocated tier, per school; tier 0 means nothing allocated
+    private final int[][] tierCounts = new int[SCHOOL_COUNT][];
+    private final Map<String, Integer> perkCounts = new HashMap<>();
+    private boolean loaded;
+
+    public AffinityLeaderboards() {
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            rankings.add(new TreeSet<>(RANKING));
+            tierCounts[i] = new int[1];
+        }
+    }
+
+    public static AffinityLeaderboards get(MinecraftServer server) {
+        AffinityLeaderboards leaderboards = server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+        if (!leaderboards.loaded) {
+            // First use in this world: index the records that already exist
+            leaderboards.loaded = true;
+            leaderboards.rebuild(AffinityWorldStore.get(server), server.registryAccess());
+        }
+        return leaderboards;
+    }
+
+    private static AffinityLeaderboards read(CompoundTag tag, HolderLookup.Provider provider) {
+        AffinityLeaderboards leaderboards = new AffinityLeaderboards();
+        leaderboards.loaded = true;
+        ListTag entries = tag.getList("players", Tag.TAG_COMPOUND);
+        for (int i = 0; i < entries.size(); i++) {
+            CompoundTag entry = entries.getCompound(i);
+            if (!entry.hasUUID("id")) {
+                continue;
+            }
+            ListTag perkIdsTag = entry.getList("perkIds", Tag.TAG_STRING);
+            String[] perkIds = new String[perkIdsTag.size()];
+            for (int j = 0; j < perkIds.length; j++) {
+                perkIds[j] = perkIdsTag.getString(j);
+            }
+            leaderboards.index(entry.getUUID("id"), entry.getString("name"), entry.getIntArray("points"), perkIds);
+        }
+        // Loading matches what is stored
+        leaderboards.setDirty(false);
+        return leaderboards;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
+        tag.putInt("version", INDEX_VERSION);
+        ListTag entries = new ListTag();
+        for (Map.Entry<UUID, Indexed> player : players.entrySet()) {
+            Indexed indexed = player.getValue();
+            CompoundTag entry = new CompoundTag();
+            entry.putUUID("id", player.getKey());
+            entry.putString("name", indexed.name);
+            entry.putIntArray("points", indexed.points.clone());
+            ListTag perkIdsTag = new ListTag();
+            for (String perkId : indexed.perkIds) {
+                perkIdsTag.add(StringTag.valueOf(perkId));
+            }
+            entry.put("perkIds", perkIdsTag);
+            entries.add(entry);
+        }
+        tag.put("players", entries);
+        return tag;
+    }
+
+    private void rebuild(AffinityWorldStore store, HolderLookup.Provider provider) {
+        long start = System.nanoTime();
+        for (UUID playerId : store.getPlayerIds()) {
+            PlayerAffinityData data = new PlayerAffinityData();
+            try {
+                data.deserializeNBT(provider, store.getRecord(playerId));
+            } catch (RuntimeException e) {
+                ArsAffinity.LOGGER.warn("Skipping unreadable affinity record {} in leaderboards: {}", playerId, e.getMessage());
+                continue;
+            }
+            update(playerId, store.getName(playerId), data);
+        }
+        ArsAffinity.LOGGER.info("Indexed {} affinity records for leaderboards in {} ms",
+            players.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Bring a player's entry in line with their current data.
+     */
+    public void update(UUID playerId, String name, PlayerAffinityData data) {
+        int[] points = new int[SCHOOL_COUNT];
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            points[i] = data.getSchoolPoints(SchoolRelationshipHelper.ALL_SCHOOLS[i]);
+        }
+        String[] perkIds = data.getAllAllocatedPerks().stream()
+            .map(PerkAllocation::getNodeId)
+            .sorted()
+            .toArray(String[]::new);
+        index(playerId, name, points, perkIds);
+    }
+
+    /**
+     * Bring an online player's entry in line with their live data, without waiting for their next save.
+     * Does nothing on the client or for fake players.
+     */
+    public static void updatePlayer(Player player) {
+        if (!(player instanceof ServerPlayer serverPlayer) || player instanceof FakePlayer) {
+            return;
+        }
+        PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(serverPlayer);
+        if (data != null) {
+            get(serverPlayer.server).update(serverPlayer.getUUID(), serverPlayer.getGameProfile().getName(), data);
+        }
+    }
+
+    /**
+     * Apply a player's new points and sorted allocated node ids, touching only what changed.
+     */
+    private void index(UUID playerId, String name, int[] points, String[] perkIds) {
+        Indexed indexed = players.get(playerId);
+        boolean changed = false;
+        if (indexed == null) {
+            indexed = new Indexed();
+            players.put(playerId, indexed);
+            for (int i = 0; i < SCHOOL_COUNT; i++) {
+                rankings.get(i).add(new Ranked(0, playerId));
+                tierCounts[i][0]++;
+            }
+            changed = true;
+        }
+        if (name != null && !name.isEmpty() && !name.equals(indexed.name)) {
+            indexed.name = name;
+            changed = true;
+        } else if (indexed.name == null) {
+            indexed.name = "";
+        }
+
+        for (int i = 0; i < SCHOOL_COUNT && i < points.length; i++) {
+            if (indexed.points[i] == points[i]) {
+                continue;
+            }
+            TreeSet<Ranked> ranking = rankings.get(i);
+            ranking.remove(new Ranked(indexed.points[i], playerId));
+            ranking.add(new Ranked(points[i], playerId));
+            pointTotals[i] += points[i] - indexed.points[i];
+            indexed.points[i] = points[i];
+            changed = true;
+        }
+
+        if (!Arrays.equals(indexed.perkIds, perkIds)) {
+            for (String perkId : indexed.perkIds) {
+                perkCounts.computeIfPresent(perkId, (id, count) -> count > 1 ? count - 1 : null);
+            }
+            for (String perkId : perkIds) {
+                if (PerkTreeManager.getNode(perkId) != null) {
+                    perkCounts.merge(perkId, 1, Integer::sum);
+                }
+            }
+            indexed.perkIds = perkIds;
+            updateHighestTiers(indexed);
+            changed = true;
+        }
+
+        if (changed) {
+            setDirty();
+        }
+    }
+
+    /**
+     * Recount highest tiers and perk allocations against the current perk tree, after a reload changed node
+     * tiers or removed nodes. Indexed allocations keep their ids; ids the tree no longer has aren't counted.
+     */
+    public void reindexPerks() {
+        perkCounts.clear();
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            tierCounts[i] = new int[1];
+        }
+        for (Indexed indexed : players.values()) {
+            for (String perkId : indexed.perkIds) {
+                if (PerkTreeManager.getNode(perkId) != null) {
+                    perkCounts.merge(perkId, 1, Integer::sum);
+                }
+            }
+            Arrays.fill(indexed.highestTiers, 0);
+            for (int i = 0; i < SCHOOL_COUNT; i++) {
+                tierCounts[i][0]++;
+            }
+            updateHighestTiers(indexed);
+        }
+    }
+
+    private void updateHighestTiers(Indexed indexed) {
+        int[] highest = new int[SCHOOL_COUNT];
+        for (String perkId : indexed.perkIds) {
+            PerkNode node = PerkTreeManager.getNode(perkId);
+            if (node == null) {
+                continue;
+            }
+            int school = SchoolRelationshipHelper.getSchoolIndex(node.getSchool());
+            if (school >= 0) {
+                highest[school] = Math.max(highest[school], node.getTier());
+            }
+        }
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            if (highest[i] == indexed.highestTiers[i]) {
+                continue;
+            }
+            tierCounts[i][indexed.highestTiers[i]]--;
+            if (highest[i] >= tierCounts[i].length) {
+                tierCounts[i] = Arrays.copyOf(tierCounts[i], highest[i] + 1);
+            }
+            tierCounts[i][highest[i]]++;
+            indexed.highestTiers[i] = highest[i];
+        }
+    }
+
+    /**
+     * The players with the most points in a school, most first. Only walks the returned entries.
+     */
+    public List<RankedPlayer> getTop(SpellSchool school, int limit) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        List<RankedPlayer> top = new ArrayList<>(Math.min(limit, players.size()));
+        if (index < 0) {
+            return top;
+        }
+        for (Ranked ranked : rankings.get(index)) {
+            if (top.size() >= limit || ranked.points() <= 0) {
+                break;
+            }
+            top.add(new RankedPlayer(ranked.playerId(), players.get(ranked.playerId()).name, ranked.points()));
+        }
+        return top;
+    }
+
+    public double getAveragePoints(SpellSchool school) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index < 0 || players.isEmpty() ? 0.0 : (double) pointTotals[index] / players.size();
+    }
+
+    /**
+     * Players by the highest tier they have allocated in a school, indexed by tier; index 0 counts players
+     * with nothing allocated there.
+     */
+    public int[] getTierCounts(SpellSchool school) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index < 0 ? new int[0] : tierCounts[index].clone();
+    }
+
+    /**
+     * The most allocated perk nodes with how many players hold each, most first.
+     */
+    public List<Map.Entry<String, Integer>> getMostAllocatedPerks(int limit) {
+        return perkCounts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    public int size() {
+        return players.size();
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.ars_affinity.capability;
+
+import com.github.ars_affinity.ArsAffinity;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Every player's affinity record for a world, stored in {@code data/ars_affinity_players.dat} next to the
+ * vanilla saved data. Records are kept in their persisted NBT form and only decoded when queried, so offline
+ * players can be inspected and edited without loading their player files or logging them in.
+ * <p>
+ * The store is written alongside each player's persistent data and takes precedence over it at login, which
+ * makes edits to offline players stick. Records flushed at the start of a world save land here before that
+ * save writes the saved data, so the store is never older than the player files it overrides. Server thread only.
+ */
+public class AffinityWorldStore extends SavedData {
+
+    public static final String DATA_NAME = ArsAffinity.MOD_ID + "_players";
+
+    private static final int STORE_VERSION = 1;
+    // Offline records decoded for commands; each one is a few arrays and a small map
+    private static final int MAX_DECODED = 64;
+
+    public static final SavedData.Factory<AffinityWorldStore> FACTORY =
+        new SavedData.Factory<>(AffinityWorldStore::new, AffinityWorldStore::read, null);
+
+    private record StoredRecord(String name, CompoundTag data) {
+    }
+
+    private final Map<UUID, StoredRecord> records = new HashMap<>();
+
+    private final Map<UUID, PlayerAffinityData> decoded = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, PlayerAffinityData> eldest) {
+            return size() > MAX_DECODED;
+        }
+    };
+
+    public static AffinityWorldStore get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+    }
+
+    private static AffinityWorldStore read(CompoundTag tag, HolderLookup.Provider provider) {
+        AffinityWorldStore store = new AffinityWorldStore();
+        ListTag players = tag.getList("players", Tag.TAG_COMPOUND);
+        for (int i = 0; i < players.size(); i++) {
+            CompoundTag entry = players.getCompound(i);
+            if (!entry.hasUUID("id")) {
+                continue;
+            }
+            store.records.put(entry.getUUID("id"), new StoredRecord(entry.getString("name"), entry.getCompound("data")));
+        }
+        ArsAffinity.LOGGER.debug("Loaded {} affinity records from world store", store.records.size());
+        return store;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
+        tag.putInt("version", STORE_VERSION);
+        ListTag players = new ListTag();
+        for (Map.Entry<UUID, StoredRecord> record : records.entrySet()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putUUID("id", record.getKey());
+            entry.putString("name", record.getValue().name());
+            entry.put("data", record.getValue().data());
+            players.add(entry);
+        }
+        tag.put("players", players);
+        return tag;
+    }
+
+    /**
+     * Replace a player's stored record. The tag is kept as is and must not be modified afterwards.
+     */
+    public void put(UUID playerId, String name, CompoundTag data) {
+        records.put(playerId, new StoredRecord(name, data));
+        decoded.remove(playerId);
+        setDirty();
+    }
+
+    /**
+     * A player's stored record in its persisted form, or null if the player has none.
+     */
+    public CompoundTag getRecord(UUID playerId) {
+        StoredRecord record = records.get(playerId);
+        return record != null ? record.data() : null;
+    }
+
+    /**
+     * Decode a player's stored record, reusing the copy decoded by an earlier query. Changes to the
+     * returned data only persist through {@link #update(UUID, PlayerAffinityData)}.
+     *
+     * @return The decoded record, or null if the player has none
+     */
+    public PlayerAffinityData load(UUID playerId, HolderLookup.Provider provider) {
+        PlayerAffinityData data = decoded.get(playerId);
+        if (data != null) {
+            return data;
+        }
+        StoredRecord record = records.get(playerId);
+        if (record == null) {
+            return null;
+        }
+        data = new PlayerAffinityData();
+        data.deserializeNBT(provider, record.data());
+        decoded.put(playerId, data);
+        return data;
+    }
+
+    /**
+     * Write back a record returned by {@link #load(UUID, HolderLookup.Provider)} after changing it.
+     */
+    public void update(UUID playerId, PlayerAffinityData data) {
+        StoredRecord record = records.get(playerId);
+        records.put(playerId, new StoredRecord(record != null ? record.name() : "", data.snapshot().toNBT()));
+        data.setDirty(false);
+        setDirty();
+    }
+
+    /**
+     * Drop a decoded copy so the next query reads the stored record, e.g. when the player logs in and
+     * their live data takes over.
+     */
+    public void forget(UUID playerId) {
+        decoded.remove(playerId);
+    }
+
+    public String getName(UUID playerId) {
+        StoredRecord record = records.get(playerId);
+        return record != null ? record.name() : null;
+    }
+
+    /**
+     * Find a player by the name they had when their record was last written, ignoring case.
+     */
+    public UUID findByName(String name) {
+        for (Map.Entry<UUID, StoredRecord> record : records.entrySet()) {
+            if (record.getValue().name().equalsIgnoreCase(name)) {
+                return record.getKey();
+            }
+        }
+        return null;
+    }
+
+    public Set<UUID> getPlayerIds() {
+        return Collections.unmodifiableSet(records.keySet());
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    public int getDecodedCount() {
+        return decoded.size();
+    }
+}
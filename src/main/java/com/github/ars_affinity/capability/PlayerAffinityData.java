@@ -1,62 +1,87 @@
 package com.github.ars_affinity.capability;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.common.network.AffinitySyncState;
 import com.github.ars_affinity.perk.ActiveAbilityHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.perk.CompiledPerkTree;
+import com.github.ars_affinity.perk.MovementPerkProfile;
 import com.github.ars_affinity.perk.PerkAllocation;
 import com.github.ars_affinity.perk.PerkNode;
 import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.perk.ResolvedPerk;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
-import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
 import net.neoforged.neoforge.common.util.INBTSerializable;
 import net.minecraft.world.entity.player.Player;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 
 public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
     
+    private static final SpellSchool[] SCHOOLS = SchoolRelationshipHelper.ALL_SCHOOLS;
+    private static final String[] SCHOOL_IDS = Arrays.stream(SCHOOLS).map(PlayerAffinityData::getShortSchoolId).toArray(String[]::new);
+    
+    // Persisted layout; unversioned data is the string-keyed layout (1) or pre-perk affinities (0)
+    private static final int DATA_VERSION = 2;
+    
+    // Per-school values, indexed by SchoolRelationshipHelper.getSchoolIndex
+    
     // Points per school (awarded at percentage thresholds)
-    private final Map<SpellSchool, Integer> schoolPoints = new HashMap<>();
+    private final int[] schoolPoints = new int[SCHOOLS.length];
     
     // Percentage progress per school (0.0 to 100.0)
-    private final Map<SpellSchool, Float> schoolPercentages = new HashMap<>();
+    private final float[] schoolPercentages = new float[SCHOOLS.length];
     
     // Available points to spend (schoolPoints - allocatedPoints)
-    private final Map<SpellSchool, Integer> availablePoints = new HashMap<>();
+    private final int[] availablePoints = new int[SCHOOLS.length];
+    
+    // Points invested in allocated perks per school, kept in step with allocatedPerks
+    private final int[] allocatedPoints = new int[SCHOOLS.length];
+    
+    // Running sum of schoolPoints, and how many schools have available points
+    private int totalPoints = 0;
+    private int schoolsWithAvailablePoints = 0;
     
     // Allocated perks (what player has chosen to spend points on)
     private final Map<String, PerkAllocation> allocatedPerks = new HashMap<>();
     
-    // Unlocked perk nodes (for prerequisite checking)
-    private final Set<String> unlockedNodes = new HashSet<>();
+    // Compiled tree ids of the allocated nodes, for prerequisite and dependent checks.
+    // Tree ids change when a new tree is published, so the set is rebuilt lazily against the current tree.
+    private final BitSet allocatedIds = new BitSet();
+    private CompiledPerkTree allocatedIdsTree;
+    
+    // The allocated active ability, if any; rebuilt with the perk index
+    private PerkAllocation activeAbility;
+    
+    // Compiled, read-only index of the highest tier allocation per perk type.
+    // Rebuilt whenever allocations change so hot-path perk checks are a single lookup.
+    private volatile Map<AffinityPerkType, ResolvedPerk> perkIndex = Collections.emptyMap();
+    
+    // Movement perk values read by the movement mixins every tick, rebuilt with the perk index
+    private volatile MovementPerkProfile movementProfile = MovementPerkProfile.NONE;
+    
+    // Bumped every time allocations change; used to decide between full and delta syncs
+    private long allocationVersion = 0;
+    
+    private final AffinitySyncState syncState = new AffinitySyncState();
     
     private boolean isDirty = false;
     private Player player;
     
-    private static final SpellSchool[] SUPPORTED_SCHOOLS = {
-        SpellSchools.ELEMENTAL_FIRE,
-        SpellSchools.ELEMENTAL_WATER,
-        SpellSchools.ELEMENTAL_EARTH,
-        SpellSchools.ELEMENTAL_AIR,
-        SpellSchools.ABJURATION,
-        SpellSchools.NECROMANCY,
-        SpellSchools.CONJURATION,
-        SpellSchools.MANIPULATION
-    };
-    
     public PlayerAffinityData() {
-        for (SpellSchool school : SUPPORTED_SCHOOLS) {
-            schoolPoints.put(school, 0);
-            schoolPercentages.put(school, 0.0f);
-            availablePoints.put(school, 0);
-        }
     }
     
     public void setPlayer(Player player) {
@@ -71,29 +96,50 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         this.isDirty = true;
     }
     
+    private void setSchoolPointsAt(int index, int points) {
+        totalPoints += points - schoolPoints[index];
+        schoolPoints[index] = points;
+    }
+    
+    private void setAvailablePointsAt(int index, int points) {
+        schoolsWithAvailablePoints += (points > 0 ? 1 : 0) - (availablePoints[index] > 0 ? 1 : 0);
+        availablePoints[index] = points;
+    }
+    
     public int getSchoolPoints(SpellSchool school) {
-        return schoolPoints.getOrDefault(school, 0);
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? schoolPoints[index] : 0;
     }
     
     public int getAvailablePoints(SpellSchool school) {
-        return availablePoints.getOrDefault(school, 0);
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? availablePoints[index] : 0;
     }
     
     public boolean hasAnyAvailablePoints() {
-        return availablePoints.values().stream().anyMatch(points -> points > 0);
+        return schoolsWithAvailablePoints > 0;
     }
     
     // Percentage Management
     public float getSchoolPercentage(SpellSchool school) {
-        return schoolPercentages.getOrDefault(school, 0.0f);
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? schoolPercentages[index] : 0.0f;
     }
     
     public Map<SpellSchool, Float> getAllSchoolPercentages() {
-        return new HashMap<>(schoolPercentages);
+        Map<SpellSchool, Float> percentages = new HashMap<>();
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            percentages.put(SCHOOLS[i], schoolPercentages[i]);
+        }
+        return percentages;
     }
     
     public Map<SpellSchool, Integer> getAllSchoolPoints() {
-        return new HashMap<>(schoolPoints);
+        Map<SpellSchool, Integer> points = new HashMap<>();
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            points.put(SCHOOLS[i], schoolPoints[i]);
+        }
+        return points;
     }
     
     /**
@@ -105,11 +151,15 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
      * @return The number of points awarded (if any)
      */
     public int addSchoolProgress(SpellSchool school, float percentageIncrease) {
-        float currentPercentage = getSchoolPercentage(school);
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index < 0) {
+            return 0;
+        }
+        float currentPercentage = schoolPercentages[index];
         float newPercentage = Math.min(100.0f, currentPercentage + percentageIncrease);
         
         // Update the percentage
-        schoolPercentages.put(school, newPercentage);
+        schoolPercentages[index] = newPercentage;
         
         // Calculate how many points should be awarded based on percentage thresholds
         int maxPoints = PerkTreeManager.getMaxPointsForSchool(school);
@@ -122,13 +172,13 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         
         int thresholdInterval = 100 / maxPoints; // e.g., 10% per point for 10 points
         
-        int oldPoints = getSchoolPoints(school);
+        int oldPoints = schoolPoints[index];
         int newPoints = (int) (newPercentage / thresholdInterval);
         int pointsAwarded = Math.max(0, newPoints - oldPoints);
         
         if (pointsAwarded > 0) {
             // Award the points
-            schoolPoints.put(school, newPoints);
+            setSchoolPointsAt(index, newPoints);
             updateAvailablePoints(school);
             markDirty();
             
@@ -146,7 +196,7 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
      * @return Total points across all schools
      */
     public int getTotalPointsAcrossAllSchools() {
-        return schoolPoints.values().stream().mapToInt(Integer::intValue).sum();
+        return totalPoints;
     }
     
     // Percentage tracking methods for display purposes
@@ -158,14 +208,18 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
     
     public Map<SpellSchool, Float> getAllSchoolAffinities() {
         Map<SpellSchool, Float> affinities = new HashMap<>();
-        for (SpellSchool school : SUPPORTED_SCHOOLS) {
+        for (SpellSchool school : SCHOOLS) {
             affinities.put(school, getSchoolAffinityPercentage(school));
         }
         return affinities;
     }
     
     public void addSchoolPoints(SpellSchool school, int points) {
-        int currentPoints = getSchoolPoints(school);
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index < 0) {
+            return;
+        }
+        int currentPoints = schoolPoints[index];
         int maxPoints = PerkTreeManager.getMaxPointsForSchool(school);
         
         // Cap points at maximum to prevent exceeding 100%
@@ -179,19 +233,20 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
             }
         }
         
-        schoolPoints.put(school, currentPoints + points);
+        setSchoolPointsAt(index, currentPoints + points);
         updateAvailablePoints(school);
         markDirty();
         
         ArsAffinity.LOGGER.debug("Added {} points to {} school. Total: {}/{}", 
-            points, school.getId(), getSchoolPoints(school), maxPoints);
+            points, school.getId(), schoolPoints[index], maxPoints);
     }
     
     public void setSchoolPoints(SpellSchool school, int points) {
-        if (points >= 0) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (points >= 0 && index >= 0) {
             int maxPoints = PerkTreeManager.getMaxPointsForSchool(school);
             int cappedPoints = Math.min(points, maxPoints);
-            schoolPoints.put(school, cappedPoints);
+            setSchoolPointsAt(index, cappedPoints);
             updateAvailablePoints(school);
             markDirty();
             
@@ -203,26 +258,32 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
     }
     
     public void setSchoolPercentage(SpellSchool school, float percentage) {
-        schoolPercentages.put(school, Math.max(0.0f, Math.min(100.0f, percentage)));
-        markDirty();
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index >= 0) {
+            schoolPercentages[index] = Math.max(0.0f, Math.min(100.0f, percentage));
+            markDirty();
+        }
     }
     
     public void resetSchoolPercentage(SpellSchool school) {
-        schoolPercentages.put(school, 0.0f);
-        markDirty();
+        setSchoolPercentage(school, 0.0f);
     }
     
     public void resetAllSchoolPercentages() {
-        for (SpellSchool school : SUPPORTED_SCHOOLS) {
-            schoolPercentages.put(school, 0.0f);
-        }
+        Arrays.fill(schoolPercentages, 0.0f);
         markDirty();
     }
     
     public void addAvailablePoints(SpellSchool school, int points) {
-        int currentAvailable = getAvailablePoints(school);
-        availablePoints.put(school, currentAvailable + points);
-        markDirty();
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index >= 0) {
+            setAvailablePointsAt(index, availablePoints[index] + points);
+            markDirty();
+        }
+    }
+    
+    public boolean isDirty() {
+        return isDirty;
     }
     
     public void setDirty(boolean dirty) {
@@ -240,16 +301,83 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
     }
     
     private void updateAvailablePoints(SpellSchool school) {
-        int totalPoints = getSchoolPoints(school);
-        int allocatedPoints = getAllocatedPointsForSchool(school);
-        availablePoints.put(school, Math.max(0, totalPoints - allocatedPoints));
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index >= 0) {
+            setAvailablePointsAt(index, Math.max(0, schoolPoints[index] - allocatedPoints[index]));
+        }
     }
     
-    private int getAllocatedPointsForSchool(SpellSchool school) {
-        return allocatedPerks.values().stream()
-            .filter(allocation -> allocation.getSchool().equals(school))
-            .mapToInt(PerkAllocation::getPointsInvested)
-            .sum();
+    private void updateAllAvailablePoints() {
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            setAvailablePointsAt(i, Math.max(0, schoolPoints[i] - allocatedPoints[i]));
+        }
+    }
+    
+    public int getAllocatedPointsForSchool(SpellSchool school) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? allocatedPoints[index] : 0;
+    }
+    
+    private void putAllocation(PerkAllocation allocation) {
+        allocatedPerks.put(allocation.getNodeId(), allocation);
+        int index = SchoolRelationshipHelper.getSchoolIndex(allocation.getSchool());
+        if (index >= 0) {
+            allocatedPoints[index] += allocation.getPointsInvested();
+        }
+        if (allocatedIdsTree != null) {
+            int id = allocatedIdsTree.indexOf(allocation.getNodeId());
+            if (id >= 0) {
+                allocatedIds.set(id);
+            }
+        }
+    }
+    
+    private PerkAllocation removeAllocation(String nodeId) {
+        PerkAllocation allocation = allocatedPerks.remove(nodeId);
+        if (allocation != null) {
+            int index = SchoolRelationshipHelper.getSchoolIndex(allocation.getSchool());
+            if (index >= 0) {
+                allocatedPoints[index] -= allocation.getPointsInvested();
+            }
+            if (allocatedIdsTree != null) {
+                int id = allocatedIdsTree.indexOf(nodeId);
+                if (id >= 0) {
+                    allocatedIds.clear(id);
+                }
+            }
+        }
+        return allocation;
+    }
+    
+    /**
+     * Recompute the per-school allocated point sums after allocations changed in bulk.
+     */
+    private void recountAllocations() {
+        Arrays.fill(allocatedPoints, 0);
+        for (PerkAllocation allocation : allocatedPerks.values()) {
+            int index = SchoolRelationshipHelper.getSchoolIndex(allocation.getSchool());
+            if (index >= 0) {
+                allocatedPoints[index] += allocation.getPointsInvested();
+            }
+        }
+        allocatedIdsTree = null;
+    }
+    
+    /**
+     * Ids of the allocated nodes in a compiled tree, rebuilt if the tree or the allocations changed.
+     */
+    private BitSet getAllocatedIds(CompiledPerkTree tree) {
+        if (allocatedIdsTree != tree) {
+            allocatedIds.clear();
+            for (String nodeId : allocatedPerks.keySet()) {
+                int id = tree.indexOf(nodeId);
+                if (id >= 0) {
+                    allocatedIds.set(id);
+                }
+            }
+            allocatedIdsTree = tree;
+        }
+        return allocatedIds;
     }
     
     // Perk Allocation
@@ -260,9 +388,21 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         }
         
         // Check prerequisites
-        for (String prerequisiteId : node.getPrerequisites()) {
-            if (!unlockedNodes.contains(prerequisiteId)) {
-                return false;
+        CompiledPerkTree tree = PerkTreeManager.getTree();
+        int id = tree.indexOf(node.getId());
+        if (id >= 0 && tree.getPrerequisites(id).length == node.getPrerequisites().size()) {
+            BitSet allocated = getAllocatedIds(tree);
+            for (int prerequisite : tree.getPrerequisites(id)) {
+                if (!allocated.get(prerequisite)) {
+                    return false;
+                }
+            }
+        } else {
+            // Node from another tree, or with prerequisites the tree couldn't resolve
+            for (String prerequisiteId : node.getPrerequisites()) {
+                if (!allocatedPerks.containsKey(prerequisiteId)) {
+                    return false;
+                }
             }
         }
         
@@ -290,9 +430,8 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         }
         
         // Allocate the perk
-        PerkAllocation allocation = new PerkAllocation(node);
-        allocatedPerks.put(nodeId, allocation);
-        unlockedNodes.add(nodeId);
+        putAllocation(new PerkAllocation(node));
+        rebuildPerkIndex();
         
         // Update available points
         updateAvailablePoints(node.getSchool());
@@ -314,16 +453,21 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         }
         
         // Check if any other perks depend on this one
-        for (PerkAllocation otherAllocation : allocatedPerks.values()) {
-            if (otherAllocation.getNode().getPrerequisites().contains(nodeId)) {
-                ArsAffinity.LOGGER.warn("Cannot deallocate {} - other perks depend on it", nodeId);
-                return false;
+        CompiledPerkTree tree = PerkTreeManager.getTree();
+        int id = tree.indexOf(nodeId);
+        if (id >= 0) {
+            BitSet allocated = getAllocatedIds(tree);
+            for (int dependent : tree.getDependents(id)) {
+                if (allocated.get(dependent)) {
+                    ArsAffinity.LOGGER.warn("Cannot deallocate {} - other perks depend on it", nodeId);
+                    return false;
+                }
             }
         }
         
         // Deallocate the perk
-        allocatedPerks.remove(nodeId);
-        unlockedNodes.remove(nodeId);
+        removeAllocation(nodeId);
+        rebuildPerkIndex();
         
         // Update available points
         updateAvailablePoints(allocation.getSchool());
@@ -338,6 +482,41 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         return true;
     }
     
+    /**
+     * Point allocations at the nodes of a newly loaded perk tree, matching them by node id.
+     * Allocations whose node no longer exists are dropped and their points become available again.
+     * 
+     * @return The number of allocations dropped
+     */
+    public int remapAllocations(CompiledPerkTree tree) {
+        AffinityPerkType previousActiveAbility = getCurrentActiveAbilityType();
+        int dropped = 0;
+        
+        Iterator<Map.Entry<String, PerkAllocation>> iterator = allocatedPerks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PerkAllocation> entry = iterator.next();
+            PerkAllocation allocation = entry.getValue();
+            PerkNode node = tree.getNode(entry.getKey());
+            if (node == null) {
+                iterator.remove();
+                dropped++;
+                ArsAffinity.LOGGER.info("Dropped allocation of removed perk {}", entry.getKey());
+                continue;
+            }
+            entry.setValue(new PerkAllocation(node, allocation.getPointsInvested(), allocation.isActive()));
+        }
+        
+        recountAllocations();
+        rebuildPerkIndex();
+        updateAllAvailablePoints();
+        markDirty();
+        
+        if (previousActiveAbility != getCurrentActiveAbilityType()) {
+            updateActiveAbilityData();
+        }
+        return dropped;
+    }
+    
     public boolean isPerkAllocated(String nodeId) {
         return allocatedPerks.containsKey(nodeId);
     }
@@ -356,25 +535,78 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
             .collect(java.util.stream.Collectors.toSet());
     }
     
+    /**
+     * Get the highest tier allocation of a perk type, resolved against the loaded perk config.
+     * This is an O(1) lookup into a precomputed index and does not allocate.
+     * 
+     * @param perkType The perk type to look up
+     * @return The resolved perk, or null if no perk of this type is allocated
+     */
+    public ResolvedPerk getResolvedPerk(AffinityPerkType perkType) {
+        return perkIndex.get(perkType);
+    }
+    
+    public boolean hasPerk(AffinityPerkType perkType) {
+        return perkIndex.containsKey(perkType);
+    }
+    
+    public MovementPerkProfile getMovementProfile() {
+        return movementProfile;
+    }
+    
+    private void rebuildPerkIndex() {
+        Map<AffinityPerkType, PerkAllocation> highestTier = new EnumMap<>(AffinityPerkType.class);
+        PerkAllocation ability = null;
+        for (PerkAllocation allocation : allocatedPerks.values()) {
+            if (ability == null && ActiveAbilityHelper.isActiveAbility(allocation.getPerkType())) {
+                ability = allocation;
+            }
+            highestTier.merge(allocation.getPerkType(), allocation,
+                (current, candidate) -> candidate.getTier() > current.getTier() ? candidate : current);
+        }
+        
+        Map<AffinityPerkType, ResolvedPerk> index = new EnumMap<>(AffinityPerkType.class);
+        for (Map.Entry<AffinityPerkType, PerkAllocation> entry : highestTier.entrySet()) {
+            index.put(entry.getKey(), ResolvedPerk.resolve(entry.getValue()));
+        }
+        perkIndex = Collections.unmodifiableMap(index);
+        activeAbility = ability;
+        movementProfile = MovementPerkProfile.from(index.get(AffinityPerkType.PASSIVE_COLD_WALKER));
+        allocationVersion++;
+    }
+    
+    public long getAllocationVersion() {
+        return allocationVersion;
+    }
+    
+    public AffinitySyncState getSyncState() {
+        return syncState;
+    }
+    
+    /**
+     * Apply server-authoritative progression values received through a delta sync.
+     * Allocations are untouched; those only ever arrive through full snapshots.
+     */
+    public void applySyncedSchoolState(SpellSchool school, int points, int available, float percentage) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index >= 0) {
+            setSchoolPointsAt(index, points);
+            setAvailablePointsAt(index, available);
+            schoolPercentages[index] = percentage;
+        }
+    }
+    
     // Active Ability Management
     public boolean hasAnyActiveAbility() {
-        return allocatedPerks.values().stream()
-            .anyMatch(allocation -> ActiveAbilityHelper.isActiveAbility(allocation.getPerkType()));
+        return activeAbility != null;
     }
     
     public AffinityPerkType getCurrentActiveAbilityType() {
-        return allocatedPerks.values().stream()
-            .filter(allocation -> ActiveAbilityHelper.isActiveAbility(allocation.getPerkType()))
-            .findFirst()
-            .map(PerkAllocation::getPerkType)
-            .orElse(null);
+        return activeAbility != null ? activeAbility.getPerkType() : null;
     }
     
     public PerkAllocation getCurrentActiveAbilityAllocation() {
-        return allocatedPerks.values().stream()
-            .filter(allocation -> ActiveAbilityHelper.isActiveAbility(allocation.getPerkType()))
-            .findFirst()
-            .orElse(null);
+        return activeAbility;
     }
     
     private void updateActiveAbilityData() {
@@ -405,10 +637,8 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         // Remove all allocated perks for this school
         allocatedPerks.entrySet().removeIf(entry -> 
             entry.getValue().getSchool().equals(school));
-        
-        // Remove unlocked nodes for this school
-        unlockedNodes.removeIf(nodeId -> 
-            nodeId.startsWith(school.getId().toString()));
+        recountAllocations();
+        rebuildPerkIndex();
         
         // Reset available points
         updateAvailablePoints(school);
@@ -428,11 +658,9 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         }
         
         allocatedPerks.clear();
-        unlockedNodes.clear();
-        
-        for (SpellSchool school : SUPPORTED_SCHOOLS) {
-            updateAvailablePoints(school);
-        }
+        recountAllocations();
+        rebuildPerkIndex();
+        updateAllAvailablePoints();
         
         markDirty();
         
@@ -452,8 +680,12 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
             
             // Convert percentage to points using the same scaling as the old system
             int points = convertAffinityToPoints(oldAffinity);
-            schoolPoints.put(school, points);
-            availablePoints.put(school, points);
+            int index = SchoolRelationshipHelper.getSchoolIndex(school);
+            if (index < 0) {
+                continue;
+            }
+            setSchoolPointsAt(index, points);
+            setAvailablePointsAt(index, points);
             
             ArsAffinity.LOGGER.debug("Migrated {}: {}% -> {} points", 
                 school.getId(), oldAffinity * 100, points);
@@ -476,96 +708,149 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
         return (int) Math.round(scaledPoints);
     }
     
+    /**
+     * Immutable copy of the persisted state. Taking one only copies a few small arrays, so saves can
+     * snapshot on the server thread and encode on a worker. The arrays must not be modified.
+     *
+     * @param perkValues Points invested per allocation, shifted left by one, with the active flag in the low bit
+     */
+    public record Snapshot(int[] points, float[] percentages, int[] available, String[] perkIds, int[] perkValues,
+                           CompiledPerkTree tree) {
+        
+        /**
+         * Encode in the current persisted layout. Safe to call from any thread.
+         */
+        public CompoundTag toNBT() {
+            CompoundTag tag = new CompoundTag();
+            tag.putInt("version", DATA_VERSION);
+            
+            // School values in SchoolRelationshipHelper order; the tag keeps the arrays it is given
+            int[] percentageBits = new int[percentages.length];
+            for (int i = 0; i < percentages.length; i++) {
+                percentageBits[i] = Float.floatToIntBits(percentages[i]);
+            }
+            tag.putIntArray("points", points.clone());
+            tag.putIntArray("percentages", percentageBits);
+            tag.putIntArray("available", available.clone());
+            
+            // Allocations: node ids as a string table, plus per allocation its compiled node index at save
+            // time (to skip the id lookup while the tree is unchanged) and its packed points and active flag
+            ListTag perkIdsTag = new ListTag();
+            int[] perks = new int[perkIds.length * 2];
+            for (int i = 0; i < perkIds.length; i++) {
+                perkIdsTag.add(StringTag.valueOf(perkIds[i]));
+                perks[i * 2] = tree.indexOf(perkIds[i]);
+                perks[i * 2 + 1] = perkValues[i];
+            }
+            tag.put("perkIds", perkIdsTag);
+            tag.putIntArray("perks", perks);
+            
+            return tag;
+        }
+    }
+    
+    public Snapshot snapshot() {
+        String[] perkIds = new String[allocatedPerks.size()];
+        int[] perkValues = new int[perkIds.length];
+        int i = 0;
+        for (PerkAllocation allocation : allocatedPerks.values()) {
+            perkIds[i] = allocation.getNodeId();
+            perkValues[i++] = allocation.getPointsInvested() << 1 | (allocation.isActive() ? 1 : 0);
+        }
+        return new Snapshot(schoolPoints.clone(), schoolPercentages.clone(), availablePoints.clone(), perkIds, perkValues,
+            PerkTreeManager.getTree());
+    }
+    
     @Override
     public CompoundTag serializeNBT(HolderLookup.Provider provider) {
-        CompoundTag tag = new CompoundTag();
-        
-        // Serialize school points
-        CompoundTag schoolPointsTag = new CompoundTag();
-        for (Map.Entry<SpellSchool, Integer> entry : schoolPoints.entrySet()) {
-            String schoolId = getShortSchoolId(entry.getKey());
-            schoolPointsTag.putInt(schoolId, entry.getValue());
+        return snapshot().toNBT();
+    }
+    
+    @Override
+    public void deserializeNBT(HolderLookup.Provider provider, CompoundTag tag) {
+        Arrays.fill(schoolPercentages, 0.0f);
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            setSchoolPointsAt(i, 0);
+            setAvailablePointsAt(i, 0);
         }
-        tag.put("schoolPoints", schoolPointsTag);
+        allocatedPerks.clear();
         
-        // Serialize school percentages
-        CompoundTag schoolPercentagesTag = new CompoundTag();
-        for (Map.Entry<SpellSchool, Float> entry : schoolPercentages.entrySet()) {
-            String schoolId = getShortSchoolId(entry.getKey());
-            schoolPercentagesTag.putFloat(schoolId, entry.getValue());
+        int version = getDataVersion(tag);
+        switch (version) {
+            case 0 -> migrateFromOldSystem(readOldAffinities(tag.getCompound("affinities")));
+            case 1 -> readStringKeyedLayout(tag);
+            default -> {
+                if (version > DATA_VERSION) {
+                    ArsAffinity.LOGGER.warn("Affinity data version {} is newer than supported version {}, reading what is known", 
+                        version, DATA_VERSION);
+                }
+                readCompactLayout(tag);
+            }
         }
-        tag.put("schoolPercentages", schoolPercentagesTag);
         
-        // Serialize available points
-        CompoundTag availablePointsTag = new CompoundTag();
-        for (Map.Entry<SpellSchool, Integer> entry : availablePoints.entrySet()) {
-            String schoolId = getShortSchoolId(entry.getKey());
-            availablePointsTag.putInt(schoolId, entry.getValue());
-        }
-        tag.put("availablePoints", availablePointsTag);
+        recountAllocations();
+        rebuildPerkIndex();
         
-        // Serialize allocated perks
-        ListTag allocatedPerksTag = new ListTag();
-        for (PerkAllocation allocation : allocatedPerks.values()) {
-            allocatedPerksTag.add(allocation.serializeNBT());
+        // Freshly loaded data matches what is stored, unless it needs rewriting in the current layout
+        isDirty = version != DATA_VERSION;
+        if (isDirty) {
+            ArsAffinity.LOGGER.debug("Migrating affinity data from version {} to {}", version, DATA_VERSION);
         }
-        tag.put("allocatedPerks", allocatedPerksTag);
-        
-        // Serialize unlocked nodes
-        ListTag unlockedNodesTag = new ListTag();
-        for (String nodeId : unlockedNodes) {
-            unlockedNodesTag.add(net.minecraft.nbt.StringTag.valueOf(nodeId));
-        }
-        tag.put("unlockedNodes", unlockedNodesTag);
-        
-        return tag;
     }
     
-    @Override
-    public void deserializeNBT(HolderLookup.Provider provider, CompoundTag tag) {
-        // Deserialize school points
-        CompoundTag schoolPointsTag = tag.getCompound("schoolPoints");
-        schoolPoints.clear();
-        for (String key : schoolPointsTag.getAllKeys()) {
-            SpellSchool school = getSpellSchoolFromId(key);
-            if (school != null) {
-                int points = schoolPointsTag.getInt(key);
-                schoolPoints.put(school, points);
-            }
+    private static int getDataVersion(CompoundTag tag) {
+        if (tag.contains("version", Tag.TAG_INT)) {
+            return tag.getInt("version");
         }
-        
-        // Deserialize school percentages
-        CompoundTag schoolPercentagesTag = tag.getCompound("schoolPercentages");
-        schoolPercentages.clear();
-        for (String key : schoolPercentagesTag.getAllKeys()) {
-            SpellSchool school = getSpellSchoolFromId(key);
-            if (school != null) {
-                float percentage = schoolPercentagesTag.getFloat(key);
-                schoolPercentages.put(school, percentage);
-            }
+        // Unversioned: the string-keyed layout, or affinities from before perk trees
+        return tag.contains("affinities", Tag.TAG_COMPOUND) && !tag.contains("schoolPoints", Tag.TAG_COMPOUND) ? 0 : 1;
+    }
+    
+    private void readCompactLayout(CompoundTag tag) {
+        int[] points = tag.getIntArray("points");
+        int[] percentageBits = tag.getIntArray("percentages");
+        int[] available = tag.getIntArray("available");
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            setSchoolPointsAt(i, i < points.length ? points[i] : 0);
+            schoolPercentages[i] = i < percentageBits.length ? Float.intBitsToFloat(percentageBits[i]) : 0.0f;
+            setAvailablePointsAt(i, i < available.length ? available[i] : 0);
         }
         
-        // If no percentage data exists (backward compatibility), initialize with 0%
-        if (schoolPercentages.isEmpty()) {
-            for (SpellSchool school : SUPPORTED_SCHOOLS) {
-                schoolPercentages.put(school, 0.0f);
+        CompiledPerkTree tree = PerkTreeManager.getTree();
+        ListTag perkIds = tag.getList("perkIds", Tag.TAG_STRING);
+        int[] perks = tag.getIntArray("perks");
+        for (int i = 0; i < perkIds.size() && i * 2 + 1 < perks.length; i++) {
+            String nodeId = perkIds.getString(i);
+            int index = perks[i * 2];
+            PerkNode node = index >= 0 && index < tree.size() && tree.getNode(index).getId().equals(nodeId)
+                ? tree.getNode(index)
+                : tree.getNode(nodeId);
+            if (node == null) {
+                ArsAffinity.LOGGER.warn("Failed to find PerkNode for ID: {}, skipping allocation", nodeId);
+                continue;
             }
+            int packed = perks[i * 2 + 1];
+            allocatedPerks.put(nodeId, new PerkAllocation(node, packed >>> 1, (packed & 1) != 0));
         }
-        
-        // Deserialize available points
+    }
+    
+    /**
+     * Version 1: school values in compounds keyed by short school id, allocations as a list of compounds.
+     */
+    private void readStringKeyedLayout(CompoundTag tag) {
+        // Missing schools (and missing percentage data from older versions) read as 0
+        CompoundTag schoolPointsTag = tag.getCompound("schoolPoints");
+        CompoundTag schoolPercentagesTag = tag.getCompound("schoolPercentages");
         CompoundTag availablePointsTag = tag.getCompound("availablePoints");
-        availablePoints.clear();
-        for (String key : availablePointsTag.getAllKeys()) {
-            SpellSchool school = getSpellSchoolFromId(key);
-            if (school != null) {
-                int points = availablePointsTag.getInt(key);
-                availablePoints.put(school, points);
-            }
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            String schoolId = SCHOOL_IDS[i];
+            setSchoolPointsAt(i, schoolPointsTag.getInt(schoolId));
+            schoolPercentages[i] = schoolPercentagesTag.getFloat(schoolId);
+            setAvailablePointsAt(i, availablePointsTag.getInt(schoolId));
         }
         
-        // Deserialize allocated perks
+        // The unlockedNodes list is derived from the allocations
         ListTag allocatedPerksTag = tag.getList("allocatedPerks", Tag.TAG_COMPOUND);
-        allocatedPerks.clear();
         for (Tag perkTag : allocatedPerksTag) {
             if (perkTag instanceof CompoundTag compoundTag) {
                 PerkAllocation allocation = PerkAllocation.deserializeNBT(compoundTag);
@@ -576,29 +861,22 @@ public class PlayerAffinityData implements INBTSerializable<CompoundTag> {
                 }
             }
         }
-        
-        // Deserialize unlocked nodes
-        ListTag unlockedNodesTag = tag.getList("unlockedNodes", Tag.TAG_STRING);
-        unlockedNodes.clear();
-        for (Tag nodeTag : unlockedNodesTag) {
-            if (nodeTag instanceof net.minecraft.nbt.StringTag stringTag) {
-                unlockedNodes.add(stringTag.getAsString());
-            }
-        }
     }
     
-    private static SpellSchool getSpellSchoolFromId(String id) {
-        return switch (id) {
-            case "fire" -> SpellSchools.ELEMENTAL_FIRE;
-            case "water" -> SpellSchools.ELEMENTAL_WATER;
-            case "earth" -> SpellSchools.ELEMENTAL_EARTH;
-            case "air" -> SpellSchools.ELEMENTAL_AIR;
-            case "abjuration" -> SpellSchools.ABJURATION;
-            case "necromancy" -> SpellSchools.NECROMANCY;
-            case "conjuration" -> SpellSchools.CONJURATION;
-            case "manipulation" -> SpellSchools.MANIPULATION;
-            default -> null;
-        };
+    /**
+     * Version 0: a 0.0 to 1.0 affinity per school, keyed by short or full school id.
+     */
+    private static Map<SpellSchool, Float> readOldAffinities(CompoundTag affinitiesTag) {
+        Map<SpellSchool, Float> affinities = new HashMap<>();
+        for (int i = 0; i < SCHOOLS.length; i++) {
+            String fullId = SCHOOLS[i].getId().toString();
+            if (affinitiesTag.contains(SCHOOL_IDS[i])) {
+                affinities.put(SCHOOLS[i], affinitiesTag.getFloat(SCHOOL_IDS[i]));
+            } else if (affinitiesTag.contains(fullId)) {
+                affinities.put(SCHOOLS[i], affinitiesTag.getFloat(fullId));
+            }
+        }
+        return affinities;
     }
     
     private static String getShortSchoolId(SpellSchool school) {
@@ -16,7 +16,10 @@ public class PlayerAffinityDataHelper {
         PlayerAffinityDataProvider.loadPlayerData(player);
     }
     
+    /**
+     * Marks the player's data for persistence; the write itself is batched by {@link PlayerAffinityDataProvider}.
+     */
     public static void savePlayerData(Player player) {
-        PlayerAffinityDataProvider.savePlayerData(player);
+        PlayerAffinityDataProvider.requestSave(player);
     }
 }
@@ -1,88 +1,336 @@
 package com.github.ars_affinity.capability;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.config.ArsAffinityConfig;
 import com.github.ars_affinity.common.network.Networking;
+import com.github.ars_affinity.common.network.SyncAffinityProgressDeltaPacket;
 import com.github.ars_affinity.common.network.SyncPlayerAffinityDataPacket;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.common.util.FakePlayer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PlayerAffinityDataProvider {
     
     public static final ResourceLocation IDENTIFIER = ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "player_affinity_data");
     
-    private static final Map<UUID, PlayerAffinityData> playerDataCache = new HashMap<>();
+    private static final String DATA_KEY = "ars_affinity:player_affinity_data";
+    
+    // Encodes snapshots for batched saves, created on first use; null when saves are encoded on the server thread
+    private static ExecutorService saveExecutor;
+    private static boolean saveExecutorResolved;
+    
+    // Generation of the last snapshot written per player, so a slow encode never replaces newer data. Server thread only
+    private static final Map<UUID, Long> writtenGenerations = new HashMap<>();
+    private static long nextGeneration;
+    
+    private record PendingSave(UUID playerId, long generation, CompletableFuture<CompoundTag> encoded) {
+    }
+    
+    // Saves whose tags haven't been put into player data yet. Server thread only
+    private static final List<PendingSave> inFlight = new ArrayList<>();
+    
+    // Persistence metrics (server thread time only), server thread only
+    private static long saveCount;
+    private static long totalSaveNanos;
+    private static long maxSaveNanos;
     
     public static PlayerAffinityData getPlayerAffinityData(Player player) {
-        UUID playerId = player.getUUID();
+        return PlayerStateStores.AFFINITY.get(player);
+    }
+    
+    static PlayerAffinityData createPlayerAffinityData(Player player) {
+        PlayerAffinityData newData = new PlayerAffinityData();
+        newData.setPlayer(player);
         
-        return playerDataCache.computeIfAbsent(playerId, id -> {
-            PlayerAffinityData newData = new PlayerAffinityData();
-            newData.setPlayer(player);
-            
-            // Load from player persistent data
-            CompoundTag playerData = player.getPersistentData();
-            String dataKey = "ars_affinity:player_affinity_data";
-            
-            if (playerData.contains(dataKey)) {
-                CompoundTag affinityData = playerData.getCompound(dataKey);
-                if (affinityData != null && !affinityData.isEmpty()) {
-                    try {
-                        newData.deserializeNBT(player.level().registryAccess(), affinityData);
-                        ArsAffinity.LOGGER.debug("Loaded player affinity data for player {}: {} school points", 
-                            player.getName().getString(), 
-                            newData.getAllSchoolPoints().size());
-                    } catch (Exception e) {
-                        ArsAffinity.LOGGER.error("Failed to deserialize player affinity data for player {}: {}", 
-                            player.getName().getString(), e.getMessage(), e);
+        // The world store wins over player persistent data, it also carries edits made while offline
+        AffinityWorldStore store = getWorldStore(player);
+        CompoundTag affinityData = null;
+        if (store != null) {
+            store.forget(player.getUUID());
+            affinityData = store.getRecord(player.getUUID());
+        }
+        CompoundTag playerData = player.getPersistentData();
+        if (affinityData == null && playerData.contains(DATA_KEY)) {
+            affinityData = playerData.getCompound(DATA_KEY);
+            // Records written before the world store existed move into it on first load
+            if (store != null && !affinityData.isEmpty()) {
+                store.put(player.getUUID(), player.getGameProfile().getName(), affinityData.copy());
+            }
+        }
+        if (affinityData != null) {
+            if (!affinityData.isEmpty()) {
+                try {
+                    newData.deserializeNBT(player.level().registryAccess(), affinityData);
+                    if (store != null) {
+                        // Also picks up records that just moved into the store
+                        AffinityLeaderboards.get(player.getServer()).update(player.getUUID(), player.getGameProfile().getName(), newData);
                     }
-                } else {
-                    ArsAffinity.LOGGER.warn("Empty affinity data found for player {}", player.getName().getString());
+                    ArsAffinity.LOGGER.debug("Loaded player affinity data for player {}: {} school points", 
+                        player.getName().getString(), 
+                        newData.getAllSchoolPoints().size());
+                } catch (Exception e) {
+                    ArsAffinity.LOGGER.error("Failed to deserialize player affinity data for player {}: {}", 
+                        player.getName().getString(), e.getMessage(), e);
                 }
             } else {
-                ArsAffinity.LOGGER.debug("No existing affinity data found for player {}, creating new data", 
-                    player.getName().getString());
+                ArsAffinity.LOGGER.warn("Empty affinity data found for player {}", player.getName().getString());
             }
-            
-            return newData;
-        });
+        } else {
+            ArsAffinity.LOGGER.debug("No existing affinity data found for player {}, creating new data", 
+                player.getName().getString());
+        }
+        
+        return newData;
+    }
+    
+    private static AffinityWorldStore getWorldStore(Player player) {
+        // Fake players from other mods never log in, keep them out of the store
+        if (player instanceof ServerPlayer serverPlayer && !(player instanceof FakePlayer)) {
+            return AffinityWorldStore.get(serverPlayer.server);
+        }
+        return null;
+    }
+    
+    /**
+     * Put a freshly encoded record into the player's persistent data and the world store, and bring the
+     * leaderboards up to date with the live data.
+     */
+    private static void storeRecord(Player player, PlayerAffinityData data, CompoundTag affinityData) {
+        player.getPersistentData().put(DATA_KEY, affinityData);
+        AffinityWorldStore store = getWorldStore(player);
+        if (store != null) {
+            store.put(player.getUUID(), player.getGameProfile().getName(), affinityData);
+            if (data != null) {
+                AffinityLeaderboards.get(player.getServer()).update(player.getUUID(), player.getGameProfile().getName(), data);
+            }
+        }
     }
     
     public static void loadPlayerData(Player player) {
-        getPlayerAffinityData(player);
+        PlayerStateStores.AFFINITY.register(player);
     }
     
+    /**
+     * Request that a player's changes be persisted. With a save interval configured the write is
+     * deferred to the next {@link #saveDirtyData(MinecraftServer)} pass, so repeated changes only build the NBT once.
+     */
+    public static void requestSave(Player player) {
+        if (ArsAffinityConfig.AFFINITY_SAVE_INTERVAL_TICKS.get() == 0) {
+            savePlayerData(player);
+        }
+    }
+    
+    /**
+     * Write a player's data to their persistent data now, if it changed since the last write.
+     */
     public static void savePlayerData(Player player) {
         UUID playerId = player.getUUID();
-        PlayerAffinityData data = playerDataCache.get(playerId);
+        PlayerAffinityData data = PlayerStateStores.AFFINITY.getIfPresent(playerId);
+        
+        // A batched save still encoding must land while the entity is around, e.g. before logout removes it
+        if (player instanceof ServerPlayer serverPlayer && !inFlight.isEmpty()) {
+            for (PendingSave save : List.copyOf(inFlight)) {
+                if (save.playerId().equals(playerId)) {
+                    awaitSave(serverPlayer.getServer(), save);
+                }
+            }
+        }
         
         if (data != null) {
-            CompoundTag playerData = player.getPersistentData();
-            String dataKey = "ars_affinity:player_affinity_data";
-            
-            try {
-                CompoundTag affinityData = data.serializeNBT(player.level().registryAccess());
-                playerData.put(dataKey, affinityData);
-                
-                ArsAffinity.LOGGER.debug("Saved player affinity data for player {}: {} school points", 
-                    player.getName().getString(),
-                    data.getAllSchoolPoints().size());
-                    
-            } catch (Exception e) {
-                ArsAffinity.LOGGER.error("Failed to serialize player affinity data for player {}: {}", 
-                    player.getName().getString(), e.getMessage(), e);
+            if (data.isDirty()) {
+                writePlayerData(player, data);
             }
         } else {
             ArsAffinity.LOGGER.warn("No data found in cache for player {} during save", player.getName().getString());
         }
     }
     
+    /**
+     * Write every cached record that changed since it was last written. Records are snapshotted on the
+     * server thread and encoded on the save workers; the encoded tags are put into player data on a later tick.
+     *
+     * @return The number of records saved
+     */
+    public static int saveDirtyData(MinecraftServer server) {
+        return saveDirtyData(server, false);
+    }
+    
+    /**
+     * @param wait Whether to wait for the encoded tags and put them into player data before returning. Used
+     *             at the start of a world save, before player files are written, so that save includes
+     *             them; see {@link com.github.ars_affinity.event.AffinityPersistenceEvents#flushBeforeSave}
+     */
+    public static int saveDirtyData(MinecraftServer server, boolean wait) {
+        ExecutorService executor = getSaveExecutor();
+        int saved = 0;
+        for (Map.Entry<UUID, PlayerAffinityData> entry : PlayerStateStores.AFFINITY.serverEntries()) {
+            PlayerAffinityData data = entry.getValue();
+            if (!data.isDirty()) {
+                continue;
+            }
+            // Look the entity up by UUID so respawned players are written to their current entity
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+            saved++;
+            if (executor == null) {
+                writePlayerData(player, data);
+                continue;
+            }
+            
+            long start = System.nanoTime();
+            PlayerAffinityData.Snapshot snapshot = data.snapshot();
+            data.setDirty(false);
+            PendingSave save = new PendingSave(entry.getKey(), ++nextGeneration,
+                CompletableFuture.supplyAsync(snapshot::toNBT, executor));
+            recordSave(System.nanoTime() - start);
+            
+            inFlight.add(save);
+            if (!wait) {
+                save.encoded().whenCompleteAsync((tag, error) -> finishSave(server, save, tag, error), server);
+            }
+        }
+        
+        if (!wait) {
+            return saved;
+        }
+        // Encodes run in parallel; only the handoff happens here. Includes earlier saves still in flight
+        for (PendingSave save : List.copyOf(inFlight)) {
+            awaitSave(server, save);
+        }
+        return saved;
+    }
+    
+    private static void awaitSave(MinecraftServer server, PendingSave save) {
+        try {
+            finishSave(server, save, save.encoded().join(), null);
+        } catch (CompletionException e) {
+            finishSave(server, save, null, e.getCause());
+        }
+    }
+    
+    private static void finishSave(MinecraftServer server, PendingSave save, CompoundTag tag, Throwable error) {
+        if (!inFlight.remove(save)) {
+            // Already finished by a save that waited for it
+            return;
+        }
+        if (error != null) {
+            ArsAffinity.LOGGER.error("Failed to serialize player affinity data for {}: {}", save.playerId(), error.getMessage(), error);
+            PlayerAffinityData data = PlayerStateStores.AFFINITY.getIfPresent(save.playerId());
+            if (data != null) {
+                data.setDirty(true);
+            }
+            return;
+        }
+        if (save.generation() < writtenGenerations.getOrDefault(save.playerId(), 0L)) {
+            return;
+        }
+        // A player who logged out meanwhile was written synchronously on logout
+        ServerPlayer player = server.getPlayerList().getPlayer(save.playerId());
+        if (player != null) {
+            storeRecord(player, PlayerStateStores.AFFINITY.getIfPresent(save.playerId()), tag);
+            writtenGenerations.put(save.playerId(), save.generation());
+        }
+    }
+    
+    private static synchronized ExecutorService getSaveExecutor() {
+        if (!saveExecutorResolved) {
+            int threads = ArsAffinityConfig.AFFINITY_SAVE_THREADS.get();
+            if (threads > 0) {
+                AtomicInteger count = new AtomicInteger();
+                saveExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "Ars Affinity Save Worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            saveExecutorResolved = true;
+        }
+        return saveExecutor;
+    }
+    
+    private static void writePlayerData(Player player, PlayerAffinityData data) {
+        long start = System.nanoTime();
+        try {
+            CompoundTag affinityData = data.serializeNBT(player.level().registryAccess());
+            storeRecord(player, data, affinityData);
+            data.setDirty(false);
+            writtenGenerations.put(player.getUUID(), ++nextGeneration);
+            
+            ArsAffinity.LOGGER.debug("Saved player affinity data for player {}: {} school points", 
+                player.getName().getString(),
+                data.getAllSchoolPoints().size());
+                
+        } catch (Exception e) {
+            ArsAffinity.LOGGER.error("Failed to serialize player affinity data for player {}: {}", 
+                player.getName().getString(), e.getMessage(), e);
+        }
+        recordSave(System.nanoTime() - start);
+    }
+    
+    private static void recordSave(long elapsed) {
+        saveCount++;
+        totalSaveNanos += elapsed;
+        maxSaveNanos = Math.max(maxSaveNanos, elapsed);
+    }
+    
+    public static long getSaveCount() {
+        return saveCount;
+    }
+    
+    public static double getAverageSaveMicros() {
+        return saveCount == 0 ? 0.0 : totalSaveNanos / 1000.0 / saveCount;
+    }
+    
+    public static double getMaxSaveMicros() {
+        return maxSaveNanos / 1000.0;
+    }
+    
+    public static void resetSaveStats() {
+        saveCount = 0;
+        totalSaveNanos = 0;
+        maxSaveNanos = 0;
+    }
+    
+    /**
+     * Sync affinity data to the owning client. Sends a full snapshot when allocations changed
+     * since the last one, otherwise a delta of the changed schools (or nothing if nothing changed).
+     */
     public static void syncToClient(Player player) {
+        if (player instanceof ServerPlayer serverPlayer) {
+            PlayerAffinityData data = getPlayerAffinityData(player);
+            if (data != null) {
+                if (data.getSyncState().needsFullSync(data)) {
+                    syncFullToClient(serverPlayer);
+                    return;
+                }
+                SyncAffinityProgressDeltaPacket deltaPacket = SyncAffinityProgressDeltaPacket.create(data);
+                if (deltaPacket != null) {
+                    Networking.sendToPlayerClient(deltaPacket, serverPlayer);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Always sends a full snapshot. Used at login and when the client requests a resync.
+     */
+    public static void syncFullToClient(Player player) {
         if (player instanceof ServerPlayer serverPlayer) {
             PlayerAffinityData data = getPlayerAffinityData(player);
             if (data != null) {
@@ -94,21 +342,23 @@ public class PlayerAffinityDataProvider {
         }
     }
     
-    public static void saveAllData() {
-        ArsAffinity.LOGGER.debug("Saving all player data (cache size: {})", playerDataCache.size());
+    public static void saveAllData(MinecraftServer server) {
+        int saved = saveDirtyData(server, true);
+        ArsAffinity.LOGGER.debug("Saved {} changed player records (cache size: {})", saved, PlayerStateStores.AFFINITY.size());
     }
     
     public static void clearCache() {
-        ArsAffinity.LOGGER.debug("Clearing player data cache (size: {})", playerDataCache.size());
-        playerDataCache.clear();
+        ArsAffinity.LOGGER.debug("Clearing player data cache (size: {})", PlayerStateStores.AFFINITY.size());
+        PlayerStateStores.AFFINITY.clear();
+        writtenGenerations.clear();
     }
     
     public static int getCacheSize() {
-        return playerDataCache.size();
+        return PlayerStateStores.AFFINITY.size();
     }
     
     public static void removePlayerData(UUID playerId) {
-        PlayerAffinityData removed = playerDataCache.remove(playerId);
+        PlayerAffinityData removed = PlayerStateStores.AFFINITY.unregister(playerId);
         if (removed != null) {
             removed.clearPlayer();
             ArsAffinity.LOGGER.debug("Removed player affinity data from cache for UUID: {}", playerId);
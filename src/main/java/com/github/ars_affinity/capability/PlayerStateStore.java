@@ -0,0 +1,184 @@
+package com.github.ars_affinity.capability;
+
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.common.util.FakePlayer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Per-player state cache shared by the capability providers.
+ * <p>
+ * Real server players live in a concurrent map whose entries are created on login and removed on logout.
+ * Everything else (client-side copies of players, fake players) goes into a small access-ordered map that
+ * evicts the least recently used entry once it is full, so player churn cannot grow memory without bound.
+ * The client's own player is kept outside that map, so a crowd of remote players cannot evict its synced state.
+ * Client and server entries are kept apart so an integrated server never shares objects with its client.
+ */
+public class PlayerStateStore<T> {
+
+    private final String name;
+    private final Function<Player, T> loader;
+    private final BiConsumer<T, Player> binder;
+    private final int transientCapacity;
+
+    private final Map<UUID, T> serverEntries = new ConcurrentHashMap<>();
+    private final Map<UUID, T> transientEntries;
+    // The client's own player; guarded by transientEntries
+    private UUID localPlayerId;
+    private T localEntry;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param name              Name shown in metrics
+     * @param loader            Creates the state for a player, usually by reading their persistent data
+     * @param binder            Called when a registered player's entity is replaced (respawn, dimension change); may be null
+     * @param transientCapacity Maximum number of client-side and fake player entries kept
+     */
+    public PlayerStateStore(String name, Function<Player, T> loader, BiConsumer<T, Player> binder, int transientCapacity) {
+        this.name = name;
+        this.loader = loader;
+        this.binder = binder;
+        this.transientCapacity = transientCapacity;
+        this.transientEntries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, T> eldest) {
+                if (size() > PlayerStateStore.this.transientCapacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * State for a player. Server players only have state between {@link #register(Player)} and
+     * {@link #unregister(UUID)}; for anyone else it is loaded on demand.
+     *
+     * @return The state, or null for a server player that is not registered
+     */
+    public T get(Player player) {
+        if (isTransient(player)) {
+            synchronized (transientEntries) {
+                if (player.isLocalPlayer()) {
+                    if (!player.getUUID().equals(localPlayerId)) {
+                        localPlayerId = player.getUUID();
+                        localEntry = load(player);
+                    }
+                    return localEntry;
+                }
+                return transientEntries.computeIfAbsent(player.getUUID(), id -> load(player));
+            }
+        }
+        return serverEntries.get(player.getUUID());
+    }
+
+    /**
+     * Server-side state for a registered player, without loading it.
+     */
+    public T getIfPresent(UUID playerId) {
+        return serverEntries.get(playerId);
+    }
+
+    /**
+     * Start tracking a player; called on login.
+     */
+    public T register(Player player) {
+        if (isTransient(player)) {
+            return get(player);
+        }
+        return serverEntries.computeIfAbsent(player.getUUID(), id -> load(player));
+    }
+
+    /**
+     * Stop tracking a player; called on logout.
+     *
+     * @return The removed state, or null if none was cached
+     */
+    public T unregister(UUID playerId) {
+        return serverEntries.remove(playerId);
+    }
+
+    /**
+     * Point a registered player's state at their current entity.
+     */
+    public void rebind(Player player) {
+        if (binder == null || isTransient(player)) {
+            return;
+        }
+        T state = serverEntries.get(player.getUUID());
+        if (state != null) {
+            binder.accept(state, player);
+        }
+    }
+
+    /**
+     * Live view of the registered server-side entries.
+     */
+    public Set<Map.Entry<UUID, T>> serverEntries() {
+        return serverEntries.entrySet();
+    }
+
+    public void clear() {
+        serverEntries.clear();
+        clearTransient();
+    }
+
+    public void clearTransient() {
+        synchronized (transientEntries) {
+            transientEntries.clear();
+            localPlayerId = null;
+            localEntry = null;
+        }
+    }
+
+    public int size() {
+        return serverEntries.size();
+    }
+
+    public int transientSize() {
+        return transientEntries.size();
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public void resetMetrics() {
+        loads.set(0);
+        evictions.set(0);
+    }
+
+    private T load(Player player) {
+        loads.incrementAndGet();
+        return loader.apply(player);
+    }
+
+    private static boolean isTransient(Player player) {
+        return player.level().isClientSide() || player instanceof FakePlayer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d players, %d transient (max %d), %d loads, %d evictions",
+            name, size(), transientSize(), transientCapacity, getLoads(), getEvictions());
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.ars_affinity.capability;
+
+import net.minecraft.world.entity.player.Player;
+
+import java.util.List;
+
+/**
+ * The per-player stores backing the capability providers, with the lifecycle hooks shared by all of them.
+ */
+public class PlayerStateStores {
+
+    private PlayerStateStores() {}
+
+    // Client-side copies are only needed for the local player and players nearby; the local player is
+    // accessed every tick so it is never the least recently used entry
+    public static final int TRANSIENT_CAPACITY = 64;
+
+    public static final PlayerStateStore<PlayerAffinityData> AFFINITY = new PlayerStateStore<>(
+        "affinity", PlayerAffinityDataProvider::createPlayerAffinityData, PlayerAffinityData::setPlayer, TRANSIENT_CAPACITY);
+
+    public static final PlayerStateStore<WetTicks> WET_TICKS = new PlayerStateStore<>(
+        "wet_ticks", WetTicksProvider::createWetTicks, null, TRANSIENT_CAPACITY);
+
+    public static final PlayerStateStore<ActiveAbilityData> ACTIVE_ABILITY = new PlayerStateStore<>(
+        "active_ability", ActiveAbilityProvider::createActiveAbilityData, null, TRANSIENT_CAPACITY);
+
+    private static final List<PlayerStateStore<?>> ALL = List.of(AFFINITY, WET_TICKS, ACTIVE_ABILITY);
+
+    public static List<PlayerStateStore<?>> all() {
+        return ALL;
+    }
+
+    /**
+     * Re-attach cached state to a player's new entity after respawn or a dimension change.
+     */
+    public static void rebind(Player player) {
+        for (PlayerStateStore<?> store : ALL) {
+            store.rebind(player);
+        }
+    }
+
+    /**
+     * Drop client-side copies, e.g. when leaving a world.
+     */
+    public static void clearTransient() {
+        for (PlayerStateStore<?> store : ALL) {
+            store.clearTransient();
+        }
+    }
+
+    public static void resetMetrics() {
+        for (PlayerStateStore<?> store : ALL) {
+            store.resetMetrics();
+        }
+    }
+}
@@ -5,38 +5,32 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.Player;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 public class WetTicksProvider {
     
     public static final ResourceLocation IDENTIFIER = ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "wet_ticks");
     
-    private static final Map<UUID, WetTicks> playerWetTicksCache = new HashMap<>();
-    
     public static WetTicks getWetTicks(Player player) {
-        UUID playerId = player.getUUID();
-        
-        return playerWetTicksCache.computeIfAbsent(playerId, id -> {
-            WetTicks newWetTicks = new WetTicks();
-            CompoundTag playerData = player.getPersistentData();
-            if (playerData.contains(IDENTIFIER.toString())) {
-                CompoundTag wetTicksData = playerData.getCompound(IDENTIFIER.toString());
-                newWetTicks.deserializeNBT(wetTicksData);
-            }
-            return newWetTicks;
-        });
+        return PlayerStateStores.WET_TICKS.get(player);
+    }
+    
+    static WetTicks createWetTicks(Player player) {
+        WetTicks newWetTicks = new WetTicks();
+        CompoundTag playerData = player.getPersistentData();
+        if (playerData.contains(IDENTIFIER.toString())) {
+            CompoundTag wetTicksData = playerData.getCompound(IDENTIFIER.toString());
+            newWetTicks.deserializeNBT(wetTicksData);
+        }
+        return newWetTicks;
     }
     
     public static void loadPlayerWetTicks(Player player) {
-        // This will trigger the loading logic in getWetTicks
-        getWetTicks(player);
+        PlayerStateStores.WET_TICKS.register(player);
     }
     
     public static void savePlayerWetTicks(Player player) {
-        UUID playerId = player.getUUID();
-        WetTicks wetTicks = playerWetTicksCache.get(playerId);
+        WetTicks wetTicks = PlayerStateStores.WET_TICKS.getIfPresent(player.getUUID());
         
         if (wetTicks != null) {
             CompoundTag playerData = player.getPersistentData();
@@ -50,10 +44,18 @@ public class WetTicksProvider {
     }
     
     public static void clearCache() {
-        playerWetTicksCache.clear();
+        PlayerStateStores.WET_TICKS.clear();
     }
     
     public static int getCacheSize() {
-        return playerWetTicksCache.size();
+        return PlayerStateStores.WET_TICKS.size();
+    }
+    
+    public static void removePlayerWetTicks(UUID playerId) {
+        PlayerStateStores.WET_TICKS.unregister(playerId);
+    }
+    
+    public static void removePlayerWetTicks(Player player) {
+        removePlayerWetTicks(player.getUUID());
     }
 }
@@ -1,16 +1,20 @@
 package com.github.ars_affinity.client;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.PlayerStateStores;
+import com.github.ars_affinity.client.particles.FieldParticleEmitter;
 import com.github.ars_affinity.client.screen.AffinityScreen;
 import com.github.ars_affinity.common.ability.ActiveAbilityPressDownPacket;
 import com.github.ars_affinity.common.ability.ActiveAbilityReleasePacket;
 import com.github.ars_affinity.common.ability.NetworkHandler;
+import com.github.ars_affinity.perk.PerkTreeSync;
 import com.github.ars_affinity.registry.ParticleRegistry;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.player.LocalPlayer;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
 import net.neoforged.neoforge.client.event.InputEvent;
 import net.neoforged.neoforge.client.event.RegisterKeyMappingsEvent;
 import net.neoforged.neoforge.common.NeoForge;
@@ -44,6 +48,7 @@ public class ArsAffinityClient {
         modEventBus.addListener(ArsAffinityClient::registerKeybindings);
         
         NeoForge.EVENT_BUS.register(ArsAffinityClient.class);
+        NeoForge.EVENT_BUS.register(FieldParticleEmitter.class);
     }
     
     private static void clientSetup(final FMLClientSetupEvent event) {
@@ -56,6 +61,14 @@ public class ArsAffinityClient {
         ArsAffinity.LOGGER.debug("Ars Affinity keybindings registered!");
     }
     
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        // Client-side copies belong to the world being left
+        PlayerStateStores.clearTransient();
+        PerkTreeSync.restoreLocal();
+        FieldParticleEmitter.clear();
+    }
+    
     @SubscribeEvent
     public static void onKeyInput(InputEvent.Key event) {
         Minecraft minecraft = Minecraft.getInstance();
@@ -0,0 +1,104 @@
+package com.github.ars_affinity.client.particles;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.particles.SimpleParticleType;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spawns the particles of active field abilities on the client, as described by
+ * {@link com.github.ars_affinity.common.network.FieldVisualPacket}. Each tick, every field picks its density
+ * worth of random points in its box around the anchor and spawns one particle of each type at each point.
+ */
+public class FieldParticleEmitter {
+
+    // Bounds for values coming off the network
+    private static final int MAX_HALF_EXTENT = 16;
+    private static final int MAX_DENSITY = 64;
+
+    // The anchor entity as it was at start; a respawned player reuses the id with a new entity
+    private record Field(Entity anchor, int halfExtentX, int halfExtentY, int halfExtentZ, int density, List<SimpleParticleType> particleTypes) {}
+
+    private static final Map<Integer, Field> fields = new HashMap<>();
+    // Entity ids only mean something in the level the fields were started in
+    private static ClientLevel fieldLevel;
+
+    public static void start(int entityId, int halfExtentX, int halfExtentY, int halfExtentZ, int density, List<SimpleParticleType> particleTypes) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level != fieldLevel) {
+            fields.clear();
+            fieldLevel = level;
+        }
+        Entity anchor = level != null ? level.getEntity(entityId) : null;
+        if (anchor == null) {
+            // Not in view; the server sends a new start when it comes into view with the field still up
+            fields.remove(entityId);
+            return;
+        }
+        fields.put(entityId, new Field(
+            anchor,
+            Math.min(halfExtentX, MAX_HALF_EXTENT),
+            Math.min(halfExtentY, MAX_HALF_EXTENT),
+            Math.min(halfExtentZ, MAX_HALF_EXTENT),
+            Math.min(density, MAX_DENSITY),
+            particleTypes));
+    }
+
+    public static void stop(int entityId) {
+        fields.remove(entityId);
+    }
+
+    public static void clear() {
+        fields.clear();
+        fieldLevel = null;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        Minecraft minecraft = Minecraft.getInstance();
+        ClientLevel level = minecraft.level;
+        if (level == null || level != fieldLevel) {
+            clear();
+            return;
+        }
+        if (minecraft.isPaused()) {
+            return;
+        }
+
+        RandomSource random = level.getRandom();
+        Iterator<Map.Entry<Integer, Field>> iterator = fields.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Field> entry = iterator.next();
+            Field field = entry.getValue();
+            Entity anchor = field.anchor();
+            if (anchor.isRemoved() || level.getEntity(entry.getKey()) != anchor) {
+                // Out of view, gone or replaced by a respawn; the server sends a new start if the field is still up
+                iterator.remove();
+                continue;
+            }
+
+            double minX = anchor.getX() - field.halfExtentX();
+            double minY = anchor.getY() - field.halfExtentY();
+            double minZ = anchor.getZ() - field.halfExtentZ();
+            for (int i = 0; i < field.density(); i++) {
+                double x = minX + random.nextDouble() * field.halfExtentX() * 2;
+                double y = minY + random.nextDouble() * field.halfExtentY() * 2;
+                double z = minZ + random.nextDouble() * field.halfExtentZ() * 2;
+                for (SimpleParticleType type : field.particleTypes()) {
+                    level.addParticle(type, x, y, z, 0, 0, 0);
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.particle.ParticleRenderType;
 import net.minecraft.client.particle.SpriteSet;
 import net.minecraft.client.particle.TextureSheetParticle;
+import net.minecraft.world.entity.Entity;
 
 public class SpiralParticle extends TextureSheetParticle {
     private final float radius;
@@ -14,6 +15,9 @@ public class SpiralParticle extends TextureSheetParticle {
     private final float initialAngle;
     private final float initialQuadSize;
     private final float chaosAmount;
+    
+    // Last known anchor position; kept if the anchor entity leaves the client's view
+    private double centerX, centerY, centerZ;
 
     protected SpiralParticle(ClientLevel worldIn, double x, double y, double z, double vx, double vy, double vz, float r, float g, float b, float scale, int lifetime, SpriteSet sprite, int playerId, String schoolId) {
         super(worldIn, x, y, z, 0, 0, 0);
@@ -23,6 +27,9 @@ public class SpiralParticle extends TextureSheetParticle {
         // Store player and school info for position tracking
         this.playerId = playerId;
         this.schoolId = schoolId;
+        this.centerX = x;
+        this.centerY = y;
+        this.centerZ = z;
         
         // Each particle gets a random starting angle offset
         this.initialAngle = (float) (Math.random() * 2 * Math.PI);
@@ -43,9 +50,6 @@ public class SpiralParticle extends TextureSheetParticle {
         this.lifetime = 60;
 
         this.pickSprite(sprite);
-        
-        com.github.ars_affinity.ArsAffinity.LOGGER.debug("SpiralParticle created at ({}, {}, {}) with color ({}, {}, {}), size={}, lifetime={}, radius={}, speed={}", 
-            x, y, z, r, g, b, this.quadSize, this.lifetime, this.radius, this.speed);
     }
 
     @Override
@@ -62,15 +66,13 @@ public class SpiralParticle extends TextureSheetParticle {
         // Spiral radius growth
         float currentRadius = radius * (0.1f + progress * 0.01f);
 
-        // Get current interpolated center from helper
-        SpiralParticleHelper.SpiralParticleCenter center = SpiralParticleHelper.getParticleCenter(playerId, schoolId);
-        if (center == null) {
-            this.remove(); // Remove particle if center is no longer tracked
-            return;
+        // Follow the anchor entity client-side; its position is already interpolated from the server's movement sync
+        Entity anchor = playerId >= 0 ? this.level.getEntity(playerId) : null;
+        if (anchor != null && !anchor.isRemoved()) {
+            centerX = anchor.getX();
+            centerY = anchor.getY();
+            centerZ = anchor.getZ();
         }
-        double centerX = center.getCurrentX();
-        double centerY = center.getCurrentY();
-        double centerZ = center.getCurrentZ();
         
         // Calculate spiral position relative to the interpolated center point
         double x = centerX + currentRadius * Math.sin(currentAngle);
@@ -6,6 +6,8 @@ import com.hollingsworth.arsnouveau.client.particle.ParticleColor;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import com.github.ars_affinity.registry.ParticleRegistry;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.particle.ParticleEngine;
@@ -19,16 +21,12 @@ import net.minecraft.world.phys.Vec3;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class SpiralParticleHelper {
     
     private static final Map<SpellSchool, Float> SCHOOL_SCALES = new HashMap<>();
     private static final Map<SpellSchool, ResourceLocation> SCHOOL_PARTICLE_TYPES = new HashMap<>();
     
-    // Track active particle effects for position updates (no memory leak - auto-cleanup)
-    private static final Map<String, SpiralParticleCenter> activeEffects = new ConcurrentHashMap<>();
-    
     static {
         // Initialize particle scales and types
         SCHOOL_SCALES.put(SpellSchools.ELEMENTAL_FIRE, 1.2f);
@@ -61,9 +59,6 @@ public class SpiralParticleHelper {
     }
     
     public static void spawnSpiralParticlesAtPosition(ClientLevel level, Vec3 position, SpellSchool school, int particleCount) {
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper.spawnSpiralParticlesAtPosition called at position ({}, {}, {})", 
-            position.x, position.y, position.z);
-            
         if (level == null || position == null || school == null) {
             ArsAffinity.LOGGER.warn("SpiralParticleHelper: Null parameters detected for position spawn");
             return;
@@ -91,7 +86,7 @@ public class SpiralParticleHelper {
                 1.0f, 
                 40,
                 spriteType,
-                0,
+                -1, // Not anchored to an entity
                 "default"
             );
             
@@ -109,22 +104,12 @@ public class SpiralParticleHelper {
             }
         }
         
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Successfully spawned {}/{} particles at position", successfulSpawns, particleCount);
+        AffinityTrace.record(TraceEvent.SPIRAL_SPAWNED, -1, successfulSpawns, particleCount);
     }
     
     public static void spawnSpiralParticles(ClientLevel level, Player player, SpellSchool school, int particleCount, int delayTicks) {
-        ArsAffinity.LOGGER.debug("=== SPIRAL PARTICLE HELPER START ===");
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper.spawnSpiralParticles called with level={}, player={}, school={}, count={}",
-            level != null ? "ClientLevel" : "null", 
-            player != null ? player.getName().getString() : "null", 
-            school != null ? school.getId() : "null", 
-            particleCount);
-            
         if (level == null || player == null || school == null) {
             ArsAffinity.LOGGER.warn("SpiralParticleHelper: Null parameters detected, aborting particle spawn");
-            ArsAffinity.LOGGER.warn("SpiralParticleHelper: level={}, player={}, school={}", 
-                level != null, player != null, school != null);
-            ArsAffinity.LOGGER.debug("=== SPIRAL PARTICLE HELPER END (NULL PARAMS) ===");
             return;
         }
         
@@ -137,21 +122,11 @@ public class SpiralParticleHelper {
             scale = 1.0f;
         }
         
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Using color={}, scale={}", color, scale);
-        
         Vec3 playerPos = player.position();
         double x = playerPos.x;
         double y = playerPos.y; // Spawn at bottom of player
         double z = playerPos.z;
         
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Player position: ({}, {}, {}), eye height: {}", 
-            playerPos.x, playerPos.y, playerPos.z, player.getEyeHeight());
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Spawning particles at position ({}, {}, {})", x, y, z);
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Particle type: {}", ParticleRegistry.SPIRAL_FIRE.get());
-        
-        // Register the particle effect for position tracking
-        registerParticleEffect(player.getId(), school.getId().toString(), x, y, z);
-        
         int successfulSpawns = 0;
         for (int i = 0; i < particleCount; i++) {
             // Add some randomness to the spawn position
@@ -181,18 +156,12 @@ public class SpiralParticleHelper {
                     0, 0, 0
                 );
                 successfulSpawns++;
-                
-                if (i < 5) { // Log first 5 particles for debugging
-                    ArsAffinity.LOGGER.debug("SpiralParticleHelper: Spawned particle {} at ({}, {}, {})", 
-                        i, x + offsetX, y + offsetY, z + offsetZ);
-                }
             } catch (Exception e) {
                 ArsAffinity.LOGGER.error("SpiralParticleHelper: Error spawning particle {}: {}", i, e.getMessage(), e);
             }
         }
         
-        ArsAffinity.LOGGER.debug("SpiralParticleHelper: Successfully spawned {}/{} particles", successfulSpawns, particleCount);
-        ArsAffinity.LOGGER.debug("=== SPIRAL PARTICLE HELPER END ===");
+        AffinityTrace.record(TraceEvent.SPIRAL_SPAWNED, player.getId(), successfulSpawns, particleCount);
     }
     
     public static ParticleColor getSchoolColor(SpellSchool school) {
@@ -211,30 +180,6 @@ public class SpiralParticleHelper {
         };
     }
     
-    // Particle center tracking methods
-    public static void updateParticleCenter(int playerId, String schoolId, double x, double y, double z) {
-        String key = playerId + "_" + schoolId;
-        SpiralParticleCenter center = activeEffects.get(key);
-        if (center != null) {
-            center.updateTargetPosition(x, y, z);
-        }
-    }
-    
-    public static void registerParticleEffect(int playerId, String schoolId, double x, double y, double z) {
-        String key = playerId + "_" + schoolId;
-        activeEffects.put(key, new SpiralParticleCenter(x, y, z));
-    }
-    
-    public static void unregisterParticleEffect(int playerId, String schoolId) {
-        String key = playerId + "_" + schoolId;
-        activeEffects.remove(key);
-    }
-    
-    public static SpiralParticleCenter getParticleCenter(int playerId, String schoolId) {
-        String key = playerId + "_" + schoolId;
-        return activeEffects.get(key);
-    }
-    
     public static ParticleType<SpiralParticleTypeData> getParticleTypeForSchool(SpellSchool school) {
         return switch (school.getId().toString()) {
             case "fire" -> ParticleRegistry.SPIRAL_FIRE.get();
@@ -248,47 +193,5 @@ public class SpiralParticleHelper {
             default -> ParticleRegistry.SPIRAL_FIRE.get();
         };
     }
-    
-    
-    // Inner class for particle center with auto-cleanup
-    public static class SpiralParticleCenter {
-        private double currentX, currentY, currentZ;
-        private double targetX, targetY, targetZ;
-        private double prevX, prevY, prevZ;
-        private long lastUpdateTime;
-        private long creationTime;
-        
-        public SpiralParticleCenter(double x, double y, double z) {
-            this.currentX = this.targetX = this.prevX = x;
-            this.currentY = this.targetY = this.prevY = y;
-            this.currentZ = this.targetZ = this.prevZ = z;
-            this.lastUpdateTime = System.currentTimeMillis();
-            this.creationTime = System.currentTimeMillis();
-        }
-        
-        public void updateTargetPosition(double x, double y, double z) {
-            // Update position immediately - no interpolation
-            this.currentX = x;
-            this.currentY = y;
-            this.currentZ = z;
-            this.lastUpdateTime = System.currentTimeMillis();
-        }
-        
-        public double getCurrentX() {
-            return currentX;
-        }
-        
-        public double getCurrentY() {
-            return currentY;
-        }
-        
-        public double getCurrentZ() {
-            return currentZ;
-        }
-        
-        // Auto-cleanup after 5 seconds
-        public boolean isExpired() {
-            return System.currentTimeMillis() - creationTime > 5000;
-        }
-    }
+
 }
@@ -1,6 +1,8 @@
 package com.github.ars_affinity.client.screen.perk;
 
+import com.github.ars_affinity.perk.CompiledPerkTree;
 import com.github.ars_affinity.perk.PerkNode;
+import com.github.ars_affinity.perk.PerkTreeManager;
 
 import java.util.*;
 
@@ -143,63 +145,13 @@ public class PerkTreeLayout {
     }
     
     private Map<String, Integer> calculateDependencyDepths() {
+        // Depths are computed once when the perk trees are compiled
+        CompiledPerkTree tree = PerkTreeManager.getTree();
         Map<String, Integer> depths = new HashMap<>();
-        Set<String> processed = new HashSet<>();
-        
-        // Find root nodes (no prerequisites)
-        List<PerkNode> rootNodes = new ArrayList<>();
-        for (PerkNode node : schoolPerks.values()) {
-            if (node.getPrerequisites().isEmpty()) {
-                rootNodes.add(node);
-            }
-        }
-        
-        // Process root nodes first
-        for (PerkNode root : rootNodes) {
-            depths.put(root.getId(), 0);
-            processed.add(root.getId());
-        }
-        
-        // Process remaining nodes using topological sort
-        boolean progressMade = true;
-        while (progressMade) {
-            progressMade = false;
-            
-            for (PerkNode node : schoolPerks.values()) {
-                if (processed.contains(node.getId())) {
-                    continue;
-                }
-                
-                // Check if all prerequisites have been processed
-                boolean allPrereqsProcessed = true;
-                int maxPrereqDepth = -1;
-                
-                for (String prereqId : node.getPrerequisites()) {
-                    if (!processed.contains(prereqId)) {
-                        allPrereqsProcessed = false;
-                        break;
-                    }
-                    Integer prereqDepth = depths.get(prereqId);
-                    if (prereqDepth != null) {
-                        maxPrereqDepth = Math.max(maxPrereqDepth, prereqDepth);
-                    }
-                }
-                
-                if (allPrereqsProcessed) {
-                    depths.put(node.getId(), maxPrereqDepth + 1);
-                    processed.add(node.getId());
-                    progressMade = true;
-                }
-            }
-        }
-        
-        // Handle any remaining nodes (circular dependencies or orphaned nodes)
         for (PerkNode node : schoolPerks.values()) {
-            if (!depths.containsKey(node.getId())) {
-                depths.put(node.getId(), 0); // Place orphaned nodes in column 0
-            }
+            int id = tree.indexOf(node.getId());
+            depths.put(node.getId(), id >= 0 ? tree.getDepth(id) : 0);
         }
-        
         return depths;
     }
     
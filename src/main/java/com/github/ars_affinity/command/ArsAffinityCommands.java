@@ -2,20 +2,34 @@
 package com.github.ars_affinity.command;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.AffinityLeaderboards;
+import com.github.ars_affinity.capability.AffinityWorldStore;
+import com.github.ars_affinity.capability.PlayerAffinityData;
 import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.capability.PlayerStateStore;
+import com.github.ars_affinity.capability.PlayerStateStores;
 import com.github.ars_affinity.config.ArsAffinityConfig;
 import com.github.ars_affinity.event.SchoolAffinityPointAllocatedEvent;
 import com.github.ars_affinity.perk.AffinityPerkType;
 
 import com.github.ars_affinity.perk.PerkAllocation;
+import com.github.ars_affinity.perk.PerkTreeReloader;
 import com.github.ars_affinity.school.SchoolRelationshipHelper;
 import com.github.ars_affinity.util.ChatMessageHelper;
 import com.github.ars_affinity.util.GlyphBlacklistHelper;
+import com.github.ars_affinity.util.TickScheduler;
+import com.github.ars_affinity.util.metrics.HandlerMetrics;
+import com.github.ars_affinity.util.metrics.HandlerStats;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceSubsystem;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
@@ -23,15 +37,26 @@ import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.players.GameProfileCache;
 import net.neoforged.neoforge.common.NeoForge;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 
 public class ArsAffinityCommands {
 
+    private static final int DEFAULT_TOP_COUNT = 10;
+    private static final int MAX_TOP_COUNT = 100;
+    private static final int SUMMARY_PERK_COUNT = 5;
+
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         dispatcher.register(Commands.literal("ars-affinity")
             .requires(source -> source.hasPermission(2)) // OP level 2 or higher
@@ -39,34 +64,78 @@ public class ArsAffinityCommands {
                 .then(Commands.argument("school", StringArgumentType.word())
                     .suggests(getSchoolSuggestions())
                     .then(Commands.argument("percentage", FloatArgumentType.floatArg(0.0f, 100.0f))
-                        .executes(ArsAffinityCommands::setAffinity))))
+                        .executes(context -> setAffinity(context, false))
+                        .then(playerArgument()
+                            .executes(context -> setAffinity(context, true))))))
             .then(Commands.literal("get")
                 .then(Commands.argument("school", StringArgumentType.word())
                     .suggests(getSchoolSuggestions())
-                    .executes(ArsAffinityCommands::getAffinity)))
+                    .executes(context -> getAffinity(context, false))
+                    .then(playerArgument()
+                        .executes(context -> getAffinity(context, true)))))
             .then(Commands.literal("reset")
                 .then(Commands.argument("target", StringArgumentType.word())
                     .suggests(getResetSuggestions())
-                    .executes(ArsAffinityCommands::resetAffinity)))
+                    .executes(context -> resetAffinity(context, false))
+                    .then(playerArgument()
+                        .executes(context -> resetAffinity(context, true)))))
             .then(Commands.literal("list")
-                .executes(ArsAffinityCommands::listAllAffinities))
+                .executes(context -> listAllAffinities(context, false))
+                .then(playerArgument()
+                    .executes(context -> listAllAffinities(context, true))))
             .then(Commands.literal("list-perks")
-                .executes(ArsAffinityCommands::listPerks))
+                .executes(context -> listPerks(context, false))
+                .then(playerArgument()
+                    .executes(context -> listPerks(context, true))))
+            .then(Commands.literal("top")
+                .then(Commands.argument("school", StringArgumentType.word())
+                    .suggests(getSchoolSuggestions())
+                    .executes(context -> showTopPlayers(context, DEFAULT_TOP_COUNT))
+                    .then(Commands.argument("count", IntegerArgumentType.integer(1, MAX_TOP_COUNT))
+                        .executes(context -> showTopPlayers(context, IntegerArgumentType.getInteger(context, "count"))))))
+            .then(Commands.literal("summary")
+                .executes(ArsAffinityCommands::showServerSummary))
             .then(Commands.literal("blacklist")
-                .executes(ArsAffinityCommands::showGlyphBlacklist)));
+                .executes(ArsAffinityCommands::showGlyphBlacklist))
+            .then(Commands.literal("storage")
+                .executes(ArsAffinityCommands::showStorageStats)
+                .then(Commands.literal("reset")
+                    .executes(ArsAffinityCommands::resetStorageStats)))
+            .then(Commands.literal("scheduler")
+                .executes(ArsAffinityCommands::showSchedulerStats))
+            .then(Commands.literal("trace")
+                .executes(ArsAffinityCommands::showTraceStatus)
+                .then(Commands.literal("enable")
+                    .then(Commands.argument("subsystem", StringArgumentType.word())
+                        .suggests(getTraceSubsystemSuggestions())
+                        .executes(context -> setTraceEnabled(context, true))))
+                .then(Commands.literal("disable")
+                    .then(Commands.argument("subsystem", StringArgumentType.word())
+                        .suggests(getTraceSubsystemSuggestions())
+                        .executes(context -> setTraceEnabled(context, false))))
+                .then(Commands.literal("dump")
+                    .executes(ArsAffinityCommands::dumpTrace))
+                .then(Commands.literal("clear")
+                    .executes(ArsAffinityCommands::clearTrace)))
+            .then(Commands.literal("reload")
+                .executes(ArsAffinityCommands::reloadPerkTrees))
+            .then(Commands.literal("stats")
+                .executes(ArsAffinityCommands::showHandlerStats)
+                .then(Commands.literal("reset")
+                    .executes(ArsAffinityCommands::resetHandlerStats))));
     }
 
-    private static int setAffinity(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    private static int setAffinity(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
         CommandSourceStack source = context.getSource();
-        ServerPlayer player = source.getPlayerOrException();
         String schoolName = StringArgumentType.getString(context, "school");
         float percentage = FloatArgumentType.getFloat(context, "percentage");
 
-        var data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
-        if (data == null) {
-            source.sendFailure(Component.literal("Failed to get affinity data for player"));
+        AffinityTarget target = resolveTarget(context, targeted);
+        if (target == null) {
             return 0;
         }
+        ServerPlayer player = target.player();
+        var data = target.data();
 
         SpellSchool school = parseSpellSchool(schoolName);
         if (school == null) {
@@ -82,7 +151,8 @@ public class ArsAffinityCommands {
             // Use the natural progression system to add progress
             int pointsAwarded = data.addSchoolProgress(school, percentageIncrease);
             
-            if (pointsAwarded > 0) {
+            // Offline players get their rewards from the points when they are next online
+            if (pointsAwarded > 0 && player != null) {
                 SchoolAffinityPointAllocatedEvent event = new SchoolAffinityPointAllocatedEvent(
                     player, school, pointsAwarded, data.getSchoolPoints(school)
                 );
@@ -96,7 +166,7 @@ public class ArsAffinityCommands {
             // Then add progress up to the target percentage
             int pointsAwarded = data.addSchoolProgress(school, percentage);
             
-            if (pointsAwarded > 0) {
+            if (pointsAwarded > 0 && player != null) {
                 SchoolAffinityPointAllocatedEvent event = new SchoolAffinityPointAllocatedEvent(
                     player, school, pointsAwarded, data.getSchoolPoints(school)
                 );
@@ -106,28 +176,26 @@ public class ArsAffinityCommands {
 
         int maxPoints = com.github.ars_affinity.perk.PerkTreeManager.getMaxPointsForSchool(school);
         String displayName = getSchoolDisplayName(school);
-        source.sendSuccess(() -> Component.literal(String.format("Set %s affinity to %.1f%% (%d/%d points)", 
-            displayName, percentage, data.getSchoolPoints(school), maxPoints)), true);
+        source.sendSuccess(() -> Component.literal(String.format("Set %s affinity%s to %.1f%% (%d/%d points)", 
+            displayName, target.describe(targeted), percentage, data.getSchoolPoints(school), maxPoints)), true);
 
         ArsAffinity.LOGGER.debug("Player {} set {} affinity to {}% ({} points)", 
-            player.getName().getString(), displayName, percentage, data.getSchoolPoints(school));
+            target.name(), displayName, percentage, data.getSchoolPoints(school));
         
-        PlayerAffinityDataHelper.savePlayerData(player);
-        PlayerAffinityDataProvider.syncToClient(player);
+        target.save(source.getServer());
 
         return 1;
     }
 
-    private static int getAffinity(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    private static int getAffinity(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
         CommandSourceStack source = context.getSource();
-        ServerPlayer player = source.getPlayerOrException();
         String schoolName = StringArgumentType.getString(context, "school");
 
-        var data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
-        if (data == null) {
-            source.sendFailure(Component.literal("Failed to get affinity data for player"));
+        AffinityTarget target = resolveTarget(context, targeted);
+        if (target == null) {
             return 0;
         }
+        var data = target.data();
 
         SpellSchool school = parseSpellSchool(schoolName);
         if (school == null) {
@@ -140,22 +208,22 @@ public class ArsAffinityCommands {
         float percentage = data.getSchoolAffinityPercentage(school) * 100.0f;
 
         String displayName = getSchoolDisplayName(school);
-        source.sendSuccess(() -> Component.literal(String.format("%s: %d/%d points (%.1f%%)", 
-            displayName, currentPoints, maxPoints, percentage)), false);
+        source.sendSuccess(() -> Component.literal(String.format("%s%s: %d/%d points (%.1f%%)", 
+            displayName, target.describe(targeted), currentPoints, maxPoints, percentage)), false);
 
         return 1;
     }
 
-    private static int resetAffinity(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    private static int resetAffinity(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
         CommandSourceStack source = context.getSource();
-        ServerPlayer player = source.getPlayerOrException();
         String target = StringArgumentType.getString(context, "target");
 
-        var data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
-        if (data == null) {
-            ChatMessageHelper.sendAllSchoolsResetFailureMessage(player, "Failed to get affinity data for player");
+        AffinityTarget affinityTarget = resolveTarget(context, targeted);
+        if (affinityTarget == null) {
             return 0;
         }
+        ServerPlayer player = affinityTarget.player();
+        var data = affinityTarget.data();
 
         if (target.equalsIgnoreCase("all")) {
             // Reset all schools - deallocate all perks and reset points
@@ -172,9 +240,15 @@ public class ArsAffinityCommands {
                 data.resetSchoolPercentage(school);
             }
             
-            ChatMessageHelper.sendAllSchoolsResetMessage(player, totalPointsReset);
-            PlayerAffinityDataHelper.savePlayerData(player);
-            PlayerAffinityDataProvider.syncToClient(player);
+            if (player != null) {
+                ChatMessageHelper.sendAllSchoolsResetMessage(player, totalPointsReset);
+            }
+            if (targeted) {
+                int pointsReset = totalPointsReset;
+                source.sendSuccess(() -> Component.literal(String.format("Reset all affinities%s (removed %d total points)", 
+                    affinityTarget.describe(true), pointsReset)), true);
+            }
+            affinityTarget.save(source.getServer());
             return 1;
         } else {
             // Reset specific school - deallocate perks and reset points
@@ -191,24 +265,28 @@ public class ArsAffinityCommands {
             data.setSchoolPoints(school, 0);
             data.resetSchoolPercentage(school);
             
-            ChatMessageHelper.sendSchoolResetMessage(player, school, currentPoints);
-            PlayerAffinityDataHelper.savePlayerData(player);
-            PlayerAffinityDataProvider.syncToClient(player);
+            if (player != null) {
+                ChatMessageHelper.sendSchoolResetMessage(player, school, currentPoints);
+            }
+            if (targeted) {
+                source.sendSuccess(() -> Component.literal(String.format("Reset %s affinity%s (removed %d points)", 
+                    getSchoolDisplayName(school), affinityTarget.describe(true), currentPoints)), true);
+            }
+            affinityTarget.save(source.getServer());
             return 1;
         }
     }
 
-    private static int listAllAffinities(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    private static int listAllAffinities(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
         CommandSourceStack source = context.getSource();
-        ServerPlayer player = source.getPlayerOrException();
 
-        var data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
-        if (data == null) {
-            source.sendFailure(Component.literal("Failed to get affinity data for player"));
+        AffinityTarget target = resolveTarget(context, targeted);
+        if (target == null) {
             return 0;
         }
+        var data = target.data();
 
-        source.sendSuccess(() -> Component.literal("Current Affinities:"), false);
+        source.sendSuccess(() -> Component.literal("Current Affinities" + target.describe(targeted) + ":"), false);
         
         for (SpellSchool school : SchoolRelationshipHelper.ALL_SCHOOLS) {
             int currentPoints = data.getSchoolPoints(school);
@@ -222,6 +300,198 @@ public class ArsAffinityCommands {
         return 1;
     }
 
+    private static int showTopPlayers(CommandContext<CommandSourceStack> context, int count) {
+        CommandSourceStack source = context.getSource();
+        String schoolName = StringArgumentType.getString(context, "school");
+        SpellSchool school = parseSpellSchool(schoolName);
+        if (school == null) {
+            source.sendFailure(Component.literal("Unknown school: " + schoolName));
+            return 0;
+        }
+
+        List<AffinityLeaderboards.RankedPlayer> top = AffinityLeaderboards.get(source.getServer()).getTop(school, count);
+        String displayName = getSchoolDisplayName(school);
+        if (top.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("No players have " + displayName + " points yet"), false);
+            return 1;
+        }
+
+        source.sendSuccess(() -> Component.literal("Top " + displayName + " players:"), false);
+        int maxPoints = com.github.ars_affinity.perk.PerkTreeManager.getMaxPointsForSchool(school);
+        for (int i = 0; i < top.size(); i++) {
+            AffinityLeaderboards.RankedPlayer ranked = top.get(i);
+            String name = ranked.name().isEmpty() ? ranked.playerId().toString() : ranked.name();
+            int rank = i + 1;
+            source.sendSuccess(() -> Component.literal(String.format("  %d. %s: %d/%d points", 
+                rank, name, ranked.points(), maxPoints)), false);
+        }
+        return top.size();
+    }
+
+    private static int showServerSummary(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        AffinityLeaderboards leaderboards = AffinityLeaderboards.get(source.getServer());
+        source.sendSuccess(() -> Component.literal(String.format("Affinity summary over %d players:", leaderboards.size())), false);
+
+        for (SpellSchool school : SchoolRelationshipHelper.ALL_SCHOOLS) {
+            int[] tierCounts = leaderboards.getTierCounts(school);
+            StringBuilder tiers = new StringBuilder();
+            for (int tier = 1; tier < tierCounts.length; tier++) {
+                if (tierCounts[tier] > 0) {
+                    tiers.append(tiers.isEmpty() ? "" : ", ").append("T").append(tier).append(": ").append(tierCounts[tier]);
+                }
+            }
+            String tierText = tiers.isEmpty() ? "no perks" : tiers.toString();
+            source.sendSuccess(() -> Component.literal(String.format("  %s: avg %.1f points, highest tier %s", 
+                getSchoolDisplayName(school), leaderboards.getAveragePoints(school), tierText)), false);
+        }
+
+        List<Map.Entry<String, Integer>> perks = leaderboards.getMostAllocatedPerks(SUMMARY_PERK_COUNT);
+        if (!perks.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("Most allocated perks:"), false);
+            for (Map.Entry<String, Integer> perk : perks) {
+                source.sendSuccess(() -> Component.literal(String.format("  %s: %d players", perk.getKey(), perk.getValue())), false);
+            }
+        }
+        return 1;
+    }
+
+    private static int showStorageStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal(String.format("Affinity saves: %d (avg %.1f us, max %.1f us), save interval %d ticks",
+            PlayerAffinityDataProvider.getSaveCount(),
+            PlayerAffinityDataProvider.getAverageSaveMicros(),
+            PlayerAffinityDataProvider.getMaxSaveMicros(),
+            ArsAffinityConfig.AFFINITY_SAVE_INTERVAL_TICKS.get())), false);
+        for (PlayerStateStore<?> store : PlayerStateStores.all()) {
+            source.sendSuccess(() -> Component.literal("  " + store), false);
+        }
+        AffinityWorldStore worldStore = AffinityWorldStore.get(source.getServer());
+        source.sendSuccess(() -> Component.literal(String.format("  world store: %d records, %d decoded offline",
+            worldStore.size(), worldStore.getDecodedCount())), false);
+        return 1;
+    }
+
+    private static int resetStorageStats(CommandContext<CommandSourceStack> context) {
+        PlayerAffinityDataProvider.resetSaveStats();
+        PlayerStateStores.resetMetrics();
+        context.getSource().sendSuccess(() -> Component.literal("Reset affinity storage statistics"), false);
+        return 1;
+    }
+
+    private static int showSchedulerStats(CommandContext<CommandSourceStack> context) {
+        context.getSource().sendSuccess(() -> Component.literal(String.format("Scheduled tasks: %d live, %d scheduled, %d runs, %d cancelled",
+            TickScheduler.getLiveTaskCount(),
+            TickScheduler.getTotalScheduled(),
+            TickScheduler.getTotalExecuted(),
+            TickScheduler.getTotalCancelled())), false);
+        return 1;
+    }
+
+    private static int showTraceStatus(CommandContext<CommandSourceStack> context) {
+        context.getSource().sendSuccess(() -> Component.literal(String.format("Trace enabled for %s, %d events recorded (%d kept per thread)",
+            AffinityTrace.getEnabled(),
+            AffinityTrace.getRecordedCount(),
+            AffinityTrace.CAPACITY)), false);
+        return 1;
+    }
+
+    private static int setTraceEnabled(CommandContext<CommandSourceStack> context, boolean enabled) {
+        CommandSourceStack source = context.getSource();
+        String name = StringArgumentType.getString(context, "subsystem");
+
+        List<TraceSubsystem> subsystems;
+        if (name.equalsIgnoreCase("all")) {
+            subsystems = Arrays.asList(TraceSubsystem.values());
+        } else {
+            TraceSubsystem subsystem = Arrays.stream(TraceSubsystem.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+            if (subsystem == null) {
+                source.sendFailure(Component.literal("Unknown trace subsystem: " + name));
+                return 0;
+            }
+            subsystems = List.of(subsystem);
+        }
+
+        for (TraceSubsystem subsystem : subsystems) {
+            AffinityTrace.setEnabled(subsystem, enabled);
+        }
+        source.sendSuccess(() -> Component.literal("Trace enabled for " + AffinityTrace.getEnabled()), true);
+        return 1;
+    }
+
+    private static int dumpTrace(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            Path file = AffinityTrace.dump();
+            source.sendSuccess(() -> Component.literal("Wrote trace to " + file), false);
+            return 1;
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.error("Failed to write affinity trace: {}", e.getMessage(), e);
+            source.sendFailure(Component.literal("Failed to write trace: " + e.getMessage()));
+            return 0;
+        }
+    }
+
+    private static int clearTrace(CommandContext<CommandSourceStack> context) {
+        AffinityTrace.clear();
+        context.getSource().sendSuccess(() -> Component.literal("Cleared trace buffers"), false);
+        return 1;
+    }
+
+    private static int showHandlerStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        List<HandlerStats> handlers = HandlerMetrics.getHandlers();
+        source.sendSuccess(() -> Component.literal("Handler stats (by total time):"), false);
+        for (HandlerStats stats : handlers) {
+            if (stats.getInvocations() == 0) {
+                continue;
+            }
+            source.sendSuccess(() -> Component.literal(String.format("  %s: %d calls, %.2f ms total, avg %.1f us, p99 <= %.1f us, %d packets",
+                stats.getName(), stats.getInvocations(), stats.getTotalNanos() / 1_000_000.0,
+                stats.getAverageNanos() / 1_000.0, stats.getP99Nanos() / 1_000.0, stats.getPackets())), false);
+        }
+
+        List<Map.Entry<String, Long>> packets = HandlerMetrics.getPacketCounts();
+        if (!packets.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("Packets sent:"), false);
+            for (Map.Entry<String, Long> entry : packets) {
+                source.sendSuccess(() -> Component.literal(String.format("  %s: %d", entry.getKey(), entry.getValue())), false);
+            }
+        }
+        return 1;
+    }
+
+    private static int resetHandlerStats(CommandContext<CommandSourceStack> context) {
+        HandlerMetrics.reset();
+        context.getSource().sendSuccess(() -> Component.literal("Reset handler statistics"), false);
+        return 1;
+    }
+
+    private static int reloadPerkTrees(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal("Reloading perk trees..."), false);
+        PerkTreeReloader.reload(source.getServer()).whenComplete((result, error) -> {
+            if (error != null) {
+                ArsAffinity.LOGGER.error("Failed to reload perk trees: {}", error.getMessage(), error);
+                source.sendFailure(Component.literal("Failed to reload perk trees: " + error.getMessage()));
+            } else if (!result.applied()) {
+                source.sendFailure(Component.literal("Perk trees not reloaded, " + result.problems().size() + " problems:"));
+                for (String problem : result.problems()) {
+                    source.sendFailure(Component.literal("  " + problem));
+                }
+            } else if (result.changedSchools() == 0) {
+                source.sendSuccess(() -> Component.literal("Perk trees unchanged"), false);
+            } else {
+                source.sendSuccess(() -> Component.literal(String.format("Reloaded perk trees: %d schools changed, %d players updated, %d allocations dropped",
+                    result.changedSchools(), result.playersRemapped(), result.allocationsDropped())), true);
+            }
+        });
+        return 1;
+    }
+
     private static int showGlyphBlacklist(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
         CommandSourceStack source = context.getSource();
         
@@ -236,6 +506,8 @@ public class ArsAffinityCommands {
                 for (String glyphId : blacklist) {
                     source.sendSuccess(() -> Component.literal("  - " + glyphId), false);
                 }
+                int matched = GlyphBlacklistHelper.getBlacklistedGlyphCount();
+                source.sendSuccess(() -> Component.literal("Matching " + matched + " registered glyphs"), false);
             }
             
             // Also log to console for debugging
@@ -250,14 +522,12 @@ public class ArsAffinityCommands {
         return 1;
     }
 
-    private static int listPerks(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
-        ServerPlayer player = context.getSource().getPlayerOrException();
-        var data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
-        
-        if (data == null) {
-            context.getSource().sendFailure(Component.literal("Failed to get affinity data"));
+    private static int listPerks(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
+        AffinityTarget target = resolveTarget(context, targeted);
+        if (target == null) {
             return 0;
         }
+        var data = target.data();
         
         Set<PerkAllocation> activePerkAllocations = data.getAllAllocatedPerks();
         
@@ -266,7 +536,7 @@ public class ArsAffinityCommands {
             return 1;
         }
         
-        context.getSource().sendSuccess(() -> Component.literal("Active perks:"), false);
+        context.getSource().sendSuccess(() -> Component.literal("Active perks" + target.describe(targeted) + ":"), false);
         
         for (PerkAllocation allocation : activePerkAllocations) {
             AffinityPerkType perkType = allocation.getPerkType();
@@ -282,6 +552,116 @@ public class ArsAffinityCommands {
         return 1;
     }
 
+    /**
+     * The player an affinity command acts on. Online players are edited through their live data; offline
+     * players through their record in the {@link AffinityWorldStore}.
+     */
+    private record AffinityTarget(String name, ServerPlayer player, UUID offlineId, PlayerAffinityData data) {
+
+        void save(MinecraftServer server) {
+            if (player != null) {
+                PlayerAffinityDataHelper.savePlayerData(player);
+                PlayerAffinityDataProvider.syncToClient(player);
+                AffinityLeaderboards.updatePlayer(player);
+            } else {
+                AffinityWorldStore store = AffinityWorldStore.get(server);
+                store.update(offlineId, data);
+                AffinityLeaderboards.get(server).update(offlineId, store.getName(offlineId), data);
+            }
+        }
+
+        /**
+         * Suffix naming the player in feedback, empty when the command acts on its sender.
+         */
+        String describe(boolean targeted) {
+            if (!targeted) {
+                return "";
+            }
+            return " for " + name + (player == null ? " (offline)" : "");
+        }
+    }
+
+    private static RequiredArgumentBuilder<CommandSourceStack, String> playerArgument() {
+        return Commands.argument("player", StringArgumentType.word())
+            .suggests(getPlayerSuggestions());
+    }
+
+    /**
+     * Resolve the sender, or the player named by the {@code player} argument: an online player by name or
+     * UUID, otherwise an offline player with a record in the world store.
+     *
+     * @return The target, or null after reporting a failure
+     */
+    private static AffinityTarget resolveTarget(CommandContext<CommandSourceStack> context, boolean targeted) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+        if (!targeted) {
+            ServerPlayer player = source.getPlayerOrException();
+            return onlineTarget(source, player);
+        }
+
+        String name = StringArgumentType.getString(context, "player");
+        MinecraftServer server = source.getServer();
+        UUID playerId = parseUuid(name);
+        ServerPlayer online = playerId != null
+            ? server.getPlayerList().getPlayer(playerId)
+            : server.getPlayerList().getPlayerByName(name);
+        if (online != null) {
+            return onlineTarget(source, online);
+        }
+
+        AffinityWorldStore store = AffinityWorldStore.get(server);
+        if (playerId == null) {
+            // The profile cache knows current names, the store the name at the last save
+            GameProfileCache profileCache = server.getProfileCache();
+            playerId = profileCache != null
+                ? profileCache.get(name).map(GameProfile::getId).orElse(null)
+                : null;
+            if (playerId == null || store.getRecord(playerId) == null) {
+                playerId = store.findByName(name);
+            }
+        }
+        PlayerAffinityData data = playerId != null ? store.load(playerId, server.registryAccess()) : null;
+        if (data == null) {
+            source.sendFailure(Component.literal("No affinity record for player " + name));
+            return null;
+        }
+        String storedName = store.getName(playerId);
+        return new AffinityTarget(storedName.isEmpty() ? playerId.toString() : storedName, null, playerId, data);
+    }
+
+    private static AffinityTarget onlineTarget(CommandSourceStack source, ServerPlayer player) {
+        PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
+        if (data == null) {
+            source.sendFailure(Component.literal("Failed to get affinity data for player"));
+            return null;
+        }
+        return new AffinityTarget(player.getGameProfile().getName(), player, null, data);
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static SuggestionProvider<CommandSourceStack> getPlayerSuggestions() {
+        return (context, builder) -> {
+            MinecraftServer server = context.getSource().getServer();
+            Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            names.addAll(Arrays.asList(server.getPlayerNames()));
+            AffinityWorldStore store = AffinityWorldStore.get(server);
+            for (UUID playerId : store.getPlayerIds()) {
+                String name = store.getName(playerId);
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+            return SharedSuggestionProvider.suggest(names, builder);
+        };
+    }
+
     private static SuggestionProvider<CommandSourceStack> getSchoolSuggestions() {
         return (context, builder) -> {
             String[] schoolNames = Arrays.stream(SchoolRelationshipHelper.ALL_SCHOOLS)
@@ -304,6 +684,16 @@ public class ArsAffinityCommands {
         };
     }
 
+    private static SuggestionProvider<CommandSourceStack> getTraceSubsystemSuggestions() {
+        return (context, builder) -> {
+            builder.suggest("all");
+            String[] subsystems = Arrays.stream(TraceSubsystem.values())
+                .map(subsystem -> subsystem.name().toLowerCase())
+                .toArray(String[]::new);
+            return SharedSuggestionProvider.suggest(subsystems, builder);
+        };
+    }
+
     private static SpellSchool parseSpellSchool(String schoolName) {
         return switch (schoolName.toLowerCase()) {
             case "fire" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ELEMENTAL_FIRE;
@@ -1,6 +1,7 @@
 package com.github.ars_affinity.common.ability;
 
 import com.github.ars_affinity.perk.AffinityPerk;
+import com.github.ars_affinity.util.TickScheduler;
 import com.hollingsworth.arsnouveau.api.mana.IManaCap;
 import com.hollingsworth.arsnouveau.setup.registry.CapabilityRegistry;
 import net.minecraft.server.level.ServerLevel;
@@ -80,18 +81,15 @@ public abstract class AbstractDashAbility {
 		Vec3 dashVelocity = lookDirection.scale(dashSpeed);
 		player.setDeltaMovement(dashVelocity);
 		player.hurtMarked = true;
-		var server = player.level().getServer();
-		if (server != null) {
-			server.tell(new net.minecraft.server.TickTask((int)(server.getTickCount() + (dashDuration * 20)), () -> {
-				if (player.isAlive()) {
-					Vec3 currentVel = player.getDeltaMovement();
-					Vec3 horizontalVel = new Vec3(currentVel.x, currentVel.y, currentVel.z);
-					if (horizontalVel.lengthSqr() > 0.01) {
-						player.setDeltaMovement(horizontalVel.scale(0.1));
-					}
+		scheduleTask(player, (int) (dashDuration * 20), () -> {
+			if (player.isAlive()) {
+				Vec3 currentVel = player.getDeltaMovement();
+				Vec3 horizontalVel = new Vec3(currentVel.x, currentVel.y, currentVel.z);
+				if (horizontalVel.lengthSqr() > 0.01) {
+					player.setDeltaMovement(horizontalVel.scale(0.1));
 				}
-			}));
-		}
+			}
+		});
 	}
 
 	@FunctionalInterface
@@ -144,10 +142,8 @@ public abstract class AbstractDashAbility {
 		return point.distanceTo(closest);
 	}
 
-	protected void scheduleTask(ServerPlayer player, int delayTicks, Runnable task) {
-		var server = player.level().getServer();
-		if (server == null) return;
-		server.tell(new net.minecraft.server.TickTask(server.getTickCount() + delayTicks, task));
+	protected TickScheduler.TaskHandle scheduleTask(ServerPlayer player, int delayTicks, Runnable task) {
+		return TickScheduler.schedule(delayTicks, task);
 	}
 
 	protected Vec3 computeSideOffset(Vec3 startPos, Vec3 endPos, Vec3 dashDir, LivingEntity target, int index) {
@@ -1,9 +1,15 @@
 package com.github.ars_affinity.common.ability.field;
 
+import com.github.ars_affinity.common.network.FieldVisualPacket;
+import com.github.ars_affinity.common.network.Networking;
 import com.hollingsworth.arsnouveau.api.mana.IManaCap;
 import com.hollingsworth.arsnouveau.setup.registry.CapabilityRegistry;
+import net.minecraft.core.Holder;
+import net.minecraft.core.particles.SimpleParticleType;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
@@ -11,7 +17,7 @@ import net.minecraft.world.phys.Vec3;
 import java.util.List;
 
 public abstract class AbstractFieldAbility {
-	protected final ServerPlayer player;
+	protected ServerPlayer player;
 	protected final int halfExtentX;
 	protected final int halfExtentY;
 	protected final int halfExtentZ;
@@ -31,6 +37,13 @@ public abstract class AbstractFieldAbility {
 		return player;
 	}
 
+	/**
+	 * Moves the field onto the entity that replaced its owner, e.g. after a respawn, so releasing it reaches them.
+	 */
+	void rebind(ServerPlayer player) {
+		this.player = player;
+	}
+
 	public AABB getFieldAABB() {
 		Vec3 p = player.position();
 		return new AABB(
@@ -43,6 +56,10 @@ public abstract class AbstractFieldAbility {
 		return getFieldAABB().intersects(entity.getBoundingBox());
 	}
 
+	public ServerLevel getLevel() {
+		return player.serverLevel();
+	}
+
 	protected boolean tryConsumeManaTick() {
 		IManaCap manaCap = CapabilityRegistry.getMana(player);
 		if (manaCap == null) return false;
@@ -52,24 +69,59 @@ public abstract class AbstractFieldAbility {
 		return true;
 	}
 
-	public final boolean tick() {
-		// Returns false if ability should stop (e.g., cannot pay cost)
+	/**
+	 * Pays this tick's mana cost. Returns false if the ability should stop.
+	 */
+	public final boolean beginTick() {
 		if (!(player.level() instanceof ServerLevel)) return true;
-		if (!tryConsumeManaTick()) return false;
-		onTick();
-		renderParticles();
-		return true;
+		return tryConsumeManaTick();
+	}
+
+	/**
+	 * Applies the field to the living entities inside it, as resolved by {@link ActiveFieldRegistry}.
+	 */
+	public final void tick(List<LivingEntity> entitiesInField) {
+		onTick(entitiesInField);
 	}
 
-	public abstract void onTick();
+	public abstract void onTick(List<LivingEntity> entitiesInField);
 
 	public abstract void onRelease();
 
-	protected abstract void renderParticles();
+	/**
+	 * Particle types spawned at each random point inside the field. Clients generate the particles themselves.
+	 */
+	protected abstract List<SimpleParticleType> getParticleTypes();
 
-	protected List<LivingEntity> getLivingEntitiesInField() {
-		AABB box = getFieldAABB();
-		return player.level().getEntitiesOfClass(LivingEntity.class, box, e -> e.isAlive());
+	/**
+	 * Random points per tick that get one particle of each type.
+	 */
+	protected abstract int getParticleDensity();
+
+	/**
+	 * Describes this field's particles, for the owner and everyone tracking them.
+	 */
+	public FieldVisualPacket createVisualPacket() {
+		return FieldVisualPacket.start(player.getId(), halfExtentX, halfExtentY, halfExtentZ, getParticleDensity(), getParticleTypes());
+	}
+
+	/**
+	 * Starts the field's particles on the owner's and nearby clients. A field that changes size sends this again.
+	 */
+	public void sendVisualStart() {
+		Networking.sendToTrackingClients(player, createVisualPacket());
 	}
-}
 
+	public void sendVisualStop() {
+		Networking.sendToTrackingClients(player, FieldVisualPacket.stop(player.getId()));
+	}
+
+	/**
+	 * Re-applies a field effect only once the existing instance is about to run out, instead of every tick.
+	 */
+	protected static void refreshEffect(LivingEntity entity, Holder<MobEffect> effect, int durationTicks) {
+		MobEffectInstance current = entity.getEffect(effect);
+		if (current != null && current.getDuration() > durationTicks / 2) return;
+		entity.addEffect(new MobEffectInstance(effect, durationTicks, 0, false, true, true));
+	}
+}
@@ -1,20 +1,73 @@
 package com.github.ars_affinity.common.ability.field;
 
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.phys.AABB;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks active field abilities and ticks them once per level tick.
+ * Fields whose areas overlap are grouped so a single entity query serves all of them, as long as the group's
+ * bounding box stays mostly covered by its fields.
+ */
 public class ActiveFieldRegistry {
 	private static final Map<UUID, AbstractFieldAbility> ACTIVE = new ConcurrentHashMap<>();
+	// How much larger than its fields' combined volume a group's box may get; beyond that, separate queries
+	// are cheaper than one query over mostly empty space
+	private static final double MAX_GROUP_SPREAD = 2.0;
+
+	private static class FieldGroup {
+		private AABB bounds;
+		private double fieldVolume;
+		private final List<AbstractFieldAbility> fields = new ArrayList<>();
+		private final List<AABB> fieldBounds = new ArrayList<>();
+
+		private FieldGroup(AbstractFieldAbility field, AABB box) {
+			this.bounds = box;
+			add(field, box);
+		}
+
+		private void add(AbstractFieldAbility field, AABB box) {
+			fields.add(field);
+			fieldBounds.add(box);
+			bounds = bounds.minmax(box);
+			fieldVolume += volume(box);
+		}
+
+		/**
+		 * Whether an overlapping box with the given field volume can join without the group's box growing sparse.
+		 */
+		private boolean fits(AABB box, double volume) {
+			return bounds.intersects(box) && volume(bounds.minmax(box)) <= MAX_GROUP_SPREAD * (fieldVolume + volume);
+		}
+
+		private void merge(FieldGroup other) {
+			fields.addAll(other.fields);
+			fieldBounds.addAll(other.fieldBounds);
+			bounds = bounds.minmax(other.bounds);
+			fieldVolume += other.fieldVolume;
+		}
+	}
+
+	private static double volume(AABB box) {
+		return box.getXsize() * box.getYsize() * box.getZsize();
+	}
 
 	public static boolean toggleOrStart(ServerPlayer player, java.util.function.Supplier<AbstractFieldAbility> supplier) {
 		UUID id = player.getUUID();
 		if (ACTIVE.containsKey(id)) {
 			return false;
 		}
-		ACTIVE.put(id, supplier.get());
+		AbstractFieldAbility ability = supplier.get();
+		ACTIVE.put(id, ability);
+		ability.sendVisualStart();
 		return true;
 	}
 
@@ -22,18 +75,91 @@ public class ActiveFieldRegistry {
 		UUID id = player.getUUID();
 		AbstractFieldAbility ability = ACTIVE.remove(id);
 		if (ability != null) {
-			ability.onRelease();
+			release(ability);
 		}
 	}
 
-	public static void tick(ServerPlayer player) {
-		UUID id = player.getUUID();
-		AbstractFieldAbility ability = ACTIVE.get(id);
-		if (ability == null) return;
-		boolean keep = ability.tick();
-		if (!keep) {
-			ACTIVE.remove(id);
-			ability.onRelease();
+	/**
+	 * The field a player is holding, or null.
+	 */
+	public static AbstractFieldAbility get(ServerPlayer player) {
+		AbstractFieldAbility ability = ACTIVE.get(player.getUUID());
+		return ability != null && ability.getPlayer() == player ? ability : null;
+	}
+
+	private static void release(AbstractFieldAbility ability) {
+		ability.onRelease();
+		ability.sendVisualStop();
+	}
+
+	public static void tickLevel(ServerLevel level) {
+		if (ACTIVE.isEmpty()) return;
+
+		List<FieldGroup> groups = new ArrayList<>();
+		Iterator<AbstractFieldAbility> iterator = ACTIVE.values().iterator();
+		while (iterator.hasNext()) {
+			AbstractFieldAbility ability = iterator.next();
+			ServerPlayer player = ability.getPlayer();
+			if (player.isRemoved()) {
+				// Logged out or respawned; the old entity will never tick again, so release on the current one if any
+				iterator.remove();
+				ServerPlayer current = level.getServer().getPlayerList().getPlayer(player.getUUID());
+				if (current != null) {
+					ability.rebind(current);
+				}
+				release(ability);
+				continue;
+			}
+			if (ability.getLevel() != level) continue;
+			if (!ability.beginTick()) {
+				iterator.remove();
+				release(ability);
+				continue;
+			}
+
+			AABB box = ability.getFieldAABB();
+			double volume = volume(box);
+			FieldGroup group = null;
+			for (FieldGroup candidate : groups) {
+				if (candidate.fits(box, volume)) {
+					group = candidate;
+					break;
+				}
+			}
+			if (group == null) {
+				groups.add(new FieldGroup(ability, box));
+				continue;
+			}
+			group.add(ability, box);
+			// The field may bridge this group and others; merge them so entities in between are queried once
+			Iterator<FieldGroup> others = groups.iterator();
+			while (others.hasNext()) {
+				FieldGroup other = others.next();
+				if (other != group && group.fits(other.bounds, other.fieldVolume)) {
+					group.merge(other);
+					others.remove();
+				}
+			}
+		}
+
+		for (FieldGroup group : groups) {
+			List<LivingEntity> candidates = level.getEntitiesOfClass(LivingEntity.class, group.bounds, LivingEntity::isAlive);
+			for (int i = 0; i < group.fields.size(); i++) {
+				AbstractFieldAbility field = group.fields.get(i);
+				List<LivingEntity> inside;
+				if (group.fields.size() == 1) {
+					inside = candidates;
+				} else {
+					AABB box = group.fieldBounds.get(i);
+					inside = new ArrayList<>();
+					for (LivingEntity entity : candidates) {
+						if (box.intersects(entity.getBoundingBox())) {
+							inside.add(entity);
+						}
+					}
+				}
+				field.tick(inside);
+			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -7,12 +7,14 @@ import com.github.ars_affinity.common.network.Networking;
 import com.hollingsworth.arsnouveau.setup.registry.CapabilityRegistry;
 
 import net.minecraft.core.particles.ParticleTypes;
-import net.minecraft.server.level.ServerLevel;
+import net.minecraft.core.particles.SimpleParticleType;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.tags.EntityTypeTags;
 
+import java.util.List;
+
 public class CurseFieldHelper extends AbstractFieldAbility {
 
 	public static final int DEFAULT_HALF_EXTENT_X = 3; // 6 wide (x)
@@ -21,6 +23,9 @@ public class CurseFieldHelper extends AbstractFieldAbility {
 	public static final double DEFAULT_MANA_COST_PER_TICK = 1.0; // flat mana per tick
 	public static final int DEFAULT_COOLDOWN_TICKS = 20 * 5; // 5 seconds
 
+	private static final List<SimpleParticleType> PARTICLE_TYPES = List.of(ParticleTypes.SMOKE, ParticleTypes.SOUL);
+	private static final int PARTICLE_DENSITY = 10;
+
 	public CurseFieldHelper(ServerPlayer player) {
 		super(player, DEFAULT_HALF_EXTENT_X, DEFAULT_HALF_EXTENT_Y, DEFAULT_HALF_EXTENT_Z, DEFAULT_MANA_COST_PER_TICK, DEFAULT_COOLDOWN_TICKS);
 	}
@@ -39,11 +44,11 @@ public class CurseFieldHelper extends AbstractFieldAbility {
 	}
 
 	@Override
-	public void onTick() {
-		for (LivingEntity e : getLivingEntitiesInField()) {
+	public void onTick(List<LivingEntity> entitiesInField) {
+		for (LivingEntity e : entitiesInField) {
 			if (e == player) continue;
 			if (e.getType().is(EntityTypeTags.UNDEAD)) continue;
-			e.addEffect(new MobEffectInstance(ModPotions.SILENCED_EFFECT, 20, 0, false, true, true));
+			refreshEffect(e, ModPotions.SILENCED_EFFECT, 20);
 			e.hurt(player.damageSources().magic(), 1.0f);
 			player.heal(0.5f);
 			var manaCap = CapabilityRegistry.getMana(player);
@@ -60,15 +65,12 @@ public class CurseFieldHelper extends AbstractFieldAbility {
 	}
 
 	@Override
-	protected void renderParticles() {
-		if (!(player.level() instanceof ServerLevel sl)) return;
-		var box = getFieldAABB();
-		for (int i = 0; i < 10; i++) {
-			double x = box.minX + player.getRandom().nextDouble() * (box.maxX - box.minX);
-			double y = box.minY + player.getRandom().nextDouble() * (box.maxY - box.minY);
-			double z = box.minZ + player.getRandom().nextDouble() * (box.maxZ - box.minZ);
-			sl.sendParticles(ParticleTypes.SMOKE, x, y, z, 1, 0, 0, 0, 0.0);
-			sl.sendParticles(ParticleTypes.SOUL, x, y, z, 1, 0, 0, 0, 0.0);
-		}
+	protected List<SimpleParticleType> getParticleTypes() {
+		return PARTICLE_TYPES;
+	}
+
+	@Override
+	protected int getParticleDensity() {
+		return PARTICLE_DENSITY;
 	}
 }
\ No newline at end of file
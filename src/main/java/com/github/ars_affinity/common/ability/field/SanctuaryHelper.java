@@ -5,11 +5,13 @@ import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.common.network.LoopingSoundPacket;
 import com.github.ars_affinity.common.network.Networking;
 import net.minecraft.core.particles.ParticleTypes;
-import net.minecraft.server.level.ServerLevel;
+import net.minecraft.core.particles.SimpleParticleType;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.LivingEntity;
 
+import java.util.List;
+
 public class SanctuaryHelper extends AbstractFieldAbility {
 
 	public static final int DEFAULT_HALF_EXTENT_X = 1;
@@ -18,6 +20,9 @@ public class SanctuaryHelper extends AbstractFieldAbility {
 	public static final double DEFAULT_MANA_COST_PER_TICK = 1.0; // flat mana per tick
 	public static final int DEFAULT_COOLDOWN_TICKS = 20 * 5; // 5 seconds
 
+	private static final List<SimpleParticleType> PARTICLE_TYPES = List.of(ParticleTypes.GLOW, ParticleTypes.ENCHANT);
+	private static final int PARTICLE_DENSITY = 12;
+
 	public SanctuaryHelper(ServerPlayer player) {
 		super(player, DEFAULT_HALF_EXTENT_X, DEFAULT_HALF_EXTENT_Y, DEFAULT_HALF_EXTENT_Z, DEFAULT_MANA_COST_PER_TICK, DEFAULT_COOLDOWN_TICKS);
 	}
@@ -35,10 +40,10 @@ public class SanctuaryHelper extends AbstractFieldAbility {
 	}
 
 	@Override
-	public void onTick() {
-		for (LivingEntity e : getLivingEntitiesInField()) {
-			// Apply sanctuary every tick so it persists
-			e.addEffect(new MobEffectInstance(ModPotions.SANCTUARY_EFFECT, 10, 0, false, true, true));
+	public void onTick(List<LivingEntity> entitiesInField) {
+		for (LivingEntity e : entitiesInField) {
+			// Keep sanctuary topped up while inside the field
+			refreshEffect(e, ModPotions.SANCTUARY_EFFECT, 10);
 		}
 	}
 
@@ -49,16 +54,13 @@ public class SanctuaryHelper extends AbstractFieldAbility {
 	}
 
 	@Override
-	protected void renderParticles() {
-		if (!(player.level() instanceof ServerLevel sl)) return;
-		var box = getFieldAABB();
-		for (int i = 0; i < 12; i++) {
-			double x = box.minX + player.getRandom().nextDouble() * (box.maxX - box.minX);
-			double y = box.minY + player.getRandom().nextDouble() * (box.maxY - box.minY);
-			double z = box.minZ + player.getRandom().nextDouble() * (box.maxZ - box.minZ);
-			sl.sendParticles(ParticleTypes.GLOW, x, y, z, 1, 0, 0, 0, 0.0);
-			sl.sendParticles(ParticleTypes.ENCHANT, x, y, z, 1, 0, 0, 0, 0.0);
-		}
+	protected List<SimpleParticleType> getParticleTypes() {
+		return PARTICLE_TYPES;
+	}
+
+	@Override
+	protected int getParticleDensity() {
+		return PARTICLE_DENSITY;
 	}
 }
 
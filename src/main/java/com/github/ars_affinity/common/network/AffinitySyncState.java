@@ -0,0 +1,98 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+
+/**
+ * Per-player bookkeeping for the affinity sync protocol.
+ * On the server it remembers what was last sent so only changed schools go out as deltas;
+ * on the client it tracks the last received sequence number so gaps can trigger a resync.
+ */
+public class AffinitySyncState {
+
+    private static final int SCHOOL_COUNT = SchoolRelationshipHelper.ALL_SCHOOLS.length;
+
+    // Percentages are sent as fixed point with this many steps per percent
+    public static final float PERCENTAGE_SCALE = 1000.0f;
+
+    private final int[] sentPoints = new int[SCHOOL_COUNT];
+    private final int[] sentAvailablePoints = new int[SCHOOL_COUNT];
+    private final int[] sentPercentages = new int[SCHOOL_COUNT];
+
+    private int sequence;
+    private long sentAllocationVersion = -1;
+
+    public static int quantizePercentage(float percentage) {
+        return Math.round(percentage * PERCENTAGE_SCALE);
+    }
+
+    public static float dequantizePercentage(int quantized) {
+        return quantized / PERCENTAGE_SCALE;
+    }
+
+    /**
+     * A full snapshot is required before the first delta and whenever allocations changed since the last one.
+     */
+    public boolean needsFullSync(PlayerAffinityData data) {
+        return sentAllocationVersion != data.getAllocationVersion();
+    }
+
+    /**
+     * Records the state carried by a full snapshot and returns its sequence number.
+     */
+    public int markFullSync(PlayerAffinityData data) {
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            SpellSchool school = SchoolRelationshipHelper.ALL_SCHOOLS[i];
+            sentPoints[i] = data.getSchoolPoints(school);
+            sentAvailablePoints[i] = data.getAvailablePoints(school);
+            sentPercentages[i] = quantizePercentage(data.getSchoolPercentage(school));
+        }
+        sentAllocationVersion = data.getAllocationVersion();
+        return ++sequence;
+    }
+
+    /**
+     * Compares the current data against what was last sent and records the changes.
+     *
+     * @return A bitmask of school indices whose synced values changed (0 if nothing changed)
+     */
+    public int collectChangedSchools(PlayerAffinityData data) {
+        int changed = 0;
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            SpellSchool school = SchoolRelationshipHelper.ALL_SCHOOLS[i];
+            int points = data.getSchoolPoints(school);
+            int available = data.getAvailablePoints(school);
+            int percentage = quantizePercentage(data.getSchoolPercentage(school));
+            if (points != sentPoints[i] || available != sentAvailablePoints[i] || percentage != sentPercentages[i]) {
+                sentPoints[i] = points;
+                sentAvailablePoints[i] = available;
+                sentPercentages[i] = percentage;
+                changed |= 1 << i;
+            }
+        }
+        return changed;
+    }
+
+    public int nextSequence() {
+        return ++sequence;
+    }
+
+    /**
+     * Client side: accepts a full snapshot's sequence as the new baseline.
+     */
+    public void resetSequence(int receivedSequence) {
+        this.sequence = receivedSequence;
+    }
+
+    /**
+     * Client side: records a delta's sequence number.
+     *
+     * @return false if one or more packets were missed since the last one received
+     */
+    public boolean acceptSequence(int receivedSequence) {
+        boolean inOrder = receivedSequence == sequence + 1;
+        this.sequence = receivedSequence;
+        return inOrder;
+    }
+}
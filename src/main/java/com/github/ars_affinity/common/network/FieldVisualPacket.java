@@ -0,0 +1,128 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.client.particles.FieldParticleEmitter;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.particles.SimpleParticleType;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts or stops the particles of a field ability anchored to a player. A start describes the field's half
+ * extents around the anchor, the particle types and how many random points per tick get one of each; clients
+ * spawn the particles themselves every tick until the matching stop, or until the anchor leaves their view.
+ * Particle types are registry ids and must be {@link SimpleParticleType}s.
+ */
+public class FieldVisualPacket extends AbstractPacket {
+    public static final Type<FieldVisualPacket> TYPE = new Type<>(ArsAffinity.prefix("field_visual"));
+    public static final StreamCodec<RegistryFriendlyByteBuf, FieldVisualPacket> CODEC = StreamCodec.ofMember(FieldVisualPacket::toBytes, FieldVisualPacket::new);
+
+    private static final int MAX_PARTICLE_TYPES = 8;
+
+    private final int entityId;
+    private final boolean start;
+    private final int halfExtentX;
+    private final int halfExtentY;
+    private final int halfExtentZ;
+    private final int density;
+    private final List<ResourceLocation> particleTypes;
+
+    public static FieldVisualPacket start(int entityId, int halfExtentX, int halfExtentY, int halfExtentZ, int density, List<SimpleParticleType> particleTypes) {
+        List<ResourceLocation> ids = particleTypes.stream()
+            .map(BuiltInRegistries.PARTICLE_TYPE::getKey)
+            .toList();
+        return new FieldVisualPacket(entityId, true, halfExtentX, halfExtentY, halfExtentZ, density, ids);
+    }
+
+    public static FieldVisualPacket stop(int entityId) {
+        return new FieldVisualPacket(entityId, false, 0, 0, 0, 0, List.of());
+    }
+
+    private FieldVisualPacket(int entityId, boolean start, int halfExtentX, int halfExtentY, int halfExtentZ, int density, List<ResourceLocation> particleTypes) {
+        this.entityId = entityId;
+        this.start = start;
+        this.halfExtentX = halfExtentX;
+        this.halfExtentY = halfExtentY;
+        this.halfExtentZ = halfExtentZ;
+        this.density = density;
+        this.particleTypes = particleTypes;
+    }
+
+    public FieldVisualPacket(RegistryFriendlyByteBuf buf) {
+        this.entityId = buf.readVarInt();
+        this.start = buf.readBoolean();
+        if (start) {
+            this.halfExtentX = buf.readVarInt();
+            this.halfExtentY = buf.readVarInt();
+            this.halfExtentZ = buf.readVarInt();
+            this.density = buf.readVarInt();
+            int count = buf.readVarInt();
+            if (count > MAX_PARTICLE_TYPES) {
+                throw new IllegalArgumentException("Too many field particle types: " + count);
+            }
+            List<ResourceLocation> types = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                types.add(buf.readResourceLocation());
+            }
+            this.particleTypes = types;
+        } else {
+            this.halfExtentX = 0;
+            this.halfExtentY = 0;
+            this.halfExtentZ = 0;
+            this.density = 0;
+            this.particleTypes = List.of();
+        }
+    }
+
+    public void toBytes(RegistryFriendlyByteBuf buf) {
+        buf.writeVarInt(entityId);
+        buf.writeBoolean(start);
+        if (start) {
+            buf.writeVarInt(halfExtentX);
+            buf.writeVarInt(halfExtentY);
+            buf.writeVarInt(halfExtentZ);
+            buf.writeVarInt(density);
+            buf.writeVarInt(particleTypes.size());
+            for (ResourceLocation type : particleTypes) {
+                buf.writeResourceLocation(type);
+            }
+        }
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+        Handle.handle(this);
+    }
+
+    private static class Handle {
+        public static void handle(FieldVisualPacket packet) {
+            if (!packet.start) {
+                FieldParticleEmitter.stop(packet.entityId);
+                return;
+            }
+
+            List<SimpleParticleType> types = packet.particleTypes.stream()
+                .map(BuiltInRegistries.PARTICLE_TYPE::get)
+                .filter(type -> type instanceof SimpleParticleType)
+                .map(type -> (SimpleParticleType) type)
+                .toList();
+            if (types.size() != packet.particleTypes.size()) {
+                ArsAffinity.LOGGER.warn("FieldVisualPacket: Skipping unknown or parameterized particle types in {}", packet.particleTypes);
+            }
+            FieldParticleEmitter.start(packet.entityId, packet.halfExtentX, packet.halfExtentY, packet.halfExtentZ, packet.density, types);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.ars_affinity.common.network;
 
+import com.github.ars_affinity.util.metrics.HandlerMetrics;
 import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
@@ -18,13 +19,22 @@ import net.neoforged.neoforge.network.registration.PayloadRegistrar;
 
 public class Networking {
 
+    // Bump whenever a payload's wire format changes so mismatched clients are rejected at login
+    public static final String PROTOCOL_VERSION = "8";
+
     public static void register(final RegisterPayloadHandlersEvent event) {
-        final PayloadRegistrar reg = event.registrar("1");
+        final PayloadRegistrar reg = event.registrar(PROTOCOL_VERSION);
         reg.playToClient(ParticleEffectPacket.TYPE, ParticleEffectPacket.CODEC, Networking::handle);
-        reg.playToClient(ParticleEffectPacket.UPDATE_TYPE, ParticleEffectPacket.CODEC, Networking::handle);
         reg.playToClient(LoopingSoundPacket.TYPE, LoopingSoundPacket.CODEC, Networking::handle);
+        reg.playToClient(FieldVisualPacket.TYPE, FieldVisualPacket.CODEC, Networking::handle);
         reg.playToClient(SyncPlayerAffinityDataPacket.TYPE, SyncPlayerAffinityDataPacket.CODEC, Networking::handle);
+        reg.playToClient(SyncAffinityProgressDeltaPacket.TYPE, SyncAffinityProgressDeltaPacket.CODEC, Networking::handle);
+        reg.playToClient(PerkTreeUpdatePacket.TYPE, PerkTreeUpdatePacket.CODEC, Networking::handle);
+        reg.playToClient(PerkTreeHashPacket.TYPE, PerkTreeHashPacket.CODEC, Networking::handle);
+        reg.playToClient(PerkTreeSyncPacket.TYPE, PerkTreeSyncPacket.CODEC, Networking::handle);
+        reg.playToServer(RequestAffinityResyncPacket.TYPE, RequestAffinityResyncPacket.CODEC, Networking::handle);
         reg.playToServer(PerkAllocationActionPacket.TYPE, PerkAllocationActionPacket.CODEC, Networking::handle);
+        reg.playToServer(RequestPerkTreePacket.TYPE, RequestPerkTreePacket.CODEC, Networking::handle);
     }
 
     public static <T extends AbstractPacket> void handle(T message, IPayloadContext ctx) {
@@ -52,6 +62,7 @@ public class Networking {
 
     public static void sendToNearbyClient(Level world, BlockPos pos, CustomPacketPayload toSend) {
         if (world instanceof ServerLevel ws) {
+            HandlerMetrics.recordPacket(toSend);
             PacketDistributor.sendToPlayersTrackingChunk(ws, new ChunkPos(pos), toSend);
         }
     }
@@ -60,11 +71,18 @@ public class Networking {
         sendToNearbyClient(world, e.blockPosition(), toSend);
     }
 
+    public static void sendToTrackingClients(Entity e, CustomPacketPayload toSend) {
+        HandlerMetrics.recordPacket(toSend);
+        PacketDistributor.sendToPlayersTrackingEntityAndSelf(e, toSend);
+    }
+
     public static void sendToPlayerClient(CustomPacketPayload msg, ServerPlayer player) {
+        HandlerMetrics.recordPacket(msg);
         PacketDistributor.sendToPlayer(player, msg);
     }
 
     public static void sendToServer(CustomPacketPayload msg) {
+        HandlerMetrics.recordPacket(msg);
         PacketDistributor.sendToServer(msg);
     }
 }
@@ -0,0 +1,58 @@
+package com.github.ars_affinity.common.network;
+
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queues particle effects during a server tick and sends each nearby client a single
+ * {@link ParticleEffectPacket} with all the effects it can see at the end of the tick.
+ */
+public class ParticleEffectBatcher {
+
+    private record QueuedEffect(ServerLevel level, ChunkPos chunk, int entityId, SpellSchool school, int particleCount) {}
+
+    private static final List<QueuedEffect> queued = new ArrayList<>();
+
+    /**
+     * Queue an effect anchored to an entity for the players tracking its chunk.
+     */
+    public static void queue(Entity anchor, SpellSchool school, int particleCount) {
+        if (anchor.level() instanceof ServerLevel level) {
+            queued.add(new QueuedEffect(level, anchor.chunkPosition(), anchor.getId(), school, particleCount));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (queued.isEmpty()) {
+            return;
+        }
+
+        Map<ServerPlayer, ParticleEffectPacket.Builder> packets = new HashMap<>();
+        for (QueuedEffect effect : queued) {
+            for (ServerPlayer player : effect.level().getChunkSource().chunkMap.getPlayers(effect.chunk(), false)) {
+                packets.computeIfAbsent(player, p -> new ParticleEffectPacket.Builder())
+                    .add(effect.entityId(), effect.school(), effect.particleCount());
+            }
+        }
+        queued.clear();
+
+        for (Map.Entry<ServerPlayer, ParticleEffectPacket.Builder> entry : packets.entrySet()) {
+            Networking.sendToPlayerClient(entry.getValue().build(), entry.getKey());
+        }
+    }
+
+    public static void clear() {
+        queued.clear();
+    }
+}
@@ -2,6 +2,7 @@ package com.github.ars_affinity.common.network;
 
 import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.client.particles.SpiralParticleHelper;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
 import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
 import net.minecraft.client.Minecraft;
@@ -10,151 +11,132 @@ import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.world.entity.player.Player;
 
+import java.util.Arrays;
+
+/**
+ * Spawns one or more spiral effects anchored to entities. Each effect is a varint entity id, the school's
+ * index in {@link SchoolRelationshipHelper#ALL_SCHOOLS} as a byte and the particle count as a byte.
+ * Positions are relative to the anchor, which the particles follow client-side, so none are sent.
+ */
 public class ParticleEffectPacket extends AbstractPacket {
     public static final Type<ParticleEffectPacket> TYPE = new Type<>(ArsAffinity.prefix("particle_effect"));
-    public static final Type<ParticleEffectPacket> UPDATE_TYPE = new Type<>(ArsAffinity.prefix("particle_effect_update"));
     public static final StreamCodec<RegistryFriendlyByteBuf, ParticleEffectPacket> CODEC = StreamCodec.ofMember(ParticleEffectPacket::toBytes, ParticleEffectPacket::new);
-    
-    private final int playerId;
-    private final String schoolId;
-    private final int particleCount;
-    private final double posX, posY, posZ;
-    private final boolean isUpdate;
-    
-    // Constructor for initial spawn
-    public ParticleEffectPacket(int playerId, String schoolId, int particleCount) {
-        this(playerId, schoolId, particleCount, 0, 0, 0, false);
-    }
-    
-    // Constructor for position updates
-    public ParticleEffectPacket(int playerId, String schoolId, double posX, double posY, double posZ) {
-        this(playerId, schoolId, 0, posX, posY, posZ, true);
+
+    private static final int MAX_PARTICLE_COUNT = 255;
+
+    private final int[] entityIds;
+    private final byte[] schoolIndices;
+    private final byte[] particleCounts;
+
+    public ParticleEffectPacket(int entityId, SpellSchool school, int particleCount) {
+        this(new int[] {entityId}, new byte[] {toSchoolByte(school)}, new byte[] {toCountByte(particleCount)});
     }
-    
-    // Full constructor
-    private ParticleEffectPacket(int playerId, String schoolId, int particleCount, double posX, double posY, double posZ, boolean isUpdate) {
-        this.playerId = playerId;
-        this.schoolId = schoolId;
-        this.particleCount = particleCount;
-        this.posX = posX;
-        this.posY = posY;
-        this.posZ = posZ;
-        this.isUpdate = isUpdate;
+
+    private ParticleEffectPacket(int[] entityIds, byte[] schoolIndices, byte[] particleCounts) {
+        this.entityIds = entityIds;
+        this.schoolIndices = schoolIndices;
+        this.particleCounts = particleCounts;
     }
-    
+
     public ParticleEffectPacket(RegistryFriendlyByteBuf buf) {
-        this.playerId = buf.readVarInt();
-        this.schoolId = buf.readUtf();
-        this.isUpdate = buf.readBoolean();
-        if (isUpdate) {
-            this.particleCount = 0;
-            this.posX = buf.readDouble();
-            this.posY = buf.readDouble();
-            this.posZ = buf.readDouble();
-        } else {
-            this.particleCount = buf.readVarInt();
-            this.posX = 0;
-            this.posY = 0;
-            this.posZ = 0;
+        int count = buf.readVarInt();
+        this.entityIds = new int[count];
+        this.schoolIndices = new byte[count];
+        this.particleCounts = new byte[count];
+        for (int i = 0; i < count; i++) {
+            entityIds[i] = buf.readVarInt();
+            schoolIndices[i] = buf.readByte();
+            particleCounts[i] = buf.readByte();
         }
     }
 
     public void toBytes(RegistryFriendlyByteBuf buf) {
-        buf.writeVarInt(playerId);
-        buf.writeUtf(schoolId);
-        buf.writeBoolean(isUpdate);
-        if (isUpdate) {
-            buf.writeDouble(posX);
-            buf.writeDouble(posY);
-            buf.writeDouble(posZ);
-        } else {
-            buf.writeVarInt(particleCount);
+        buf.writeVarInt(entityIds.length);
+        for (int i = 0; i < entityIds.length; i++) {
+            buf.writeVarInt(entityIds[i]);
+            buf.writeByte(schoolIndices[i]);
+            buf.writeByte(particleCounts[i]);
         }
     }
-    
+
+    private static byte toSchoolByte(SpellSchool school) {
+        return (byte) SchoolRelationshipHelper.getSchoolIndex(school);
+    }
+
+    private static byte toCountByte(int particleCount) {
+        return (byte) Math.max(0, Math.min(MAX_PARTICLE_COUNT, particleCount));
+    }
+
+    /**
+     * Collects several effects into a single packet.
+     */
+    public static class Builder {
+        private int[] entityIds = new int[4];
+        private byte[] schoolIndices = new byte[4];
+        private byte[] particleCounts = new byte[4];
+        private int size;
+
+        public Builder add(int entityId, SpellSchool school, int particleCount) {
+            if (size == entityIds.length) {
+                int newLength = size * 2;
+                entityIds = Arrays.copyOf(entityIds, newLength);
+                schoolIndices = Arrays.copyOf(schoolIndices, newLength);
+                particleCounts = Arrays.copyOf(particleCounts, newLength);
+            }
+            entityIds[size] = entityId;
+            schoolIndices[size] = toSchoolByte(school);
+            particleCounts[size] = toCountByte(particleCount);
+            size++;
+            return this;
+        }
+
+        public ParticleEffectPacket build() {
+            return new ParticleEffectPacket(
+                Arrays.copyOf(entityIds, size),
+                Arrays.copyOf(schoolIndices, size),
+                Arrays.copyOf(particleCounts, size));
+        }
+    }
+
     @Override
     public Type<? extends CustomPacketPayload> type() {
-        return isUpdate ? UPDATE_TYPE : TYPE;
+        return TYPE;
     }
-    
+
     @Override
     public void onClientReceived(Minecraft minecraft, Player player) {
-        Handle.handle(this, minecraft, player);
+        Handle.handle(this, minecraft);
     }
-    
+
     private static class Handle {
-        public static void handle(ParticleEffectPacket packet, Minecraft minecraft, Player player) {
-            ArsAffinity.LOGGER.debug("=== PARTICLE EFFECT PACKET RECEIVED ===");
-            ArsAffinity.LOGGER.debug("ParticleEffectPacket.handle called with playerId={}, schoolId={}, isUpdate={}", 
-                packet.playerId, packet.schoolId, packet.isUpdate);
-            ArsAffinity.LOGGER.debug("Minecraft level: {}, isClientSide: {}", 
-                minecraft.level != null ? minecraft.level.dimension().location() : "null", 
-                minecraft.level != null ? minecraft.level.isClientSide() : "null");
-                
-            if (minecraft.level != null && minecraft.level.isClientSide()) {
-                ArsAffinity.LOGGER.debug("ParticleEffectPacket: Client-side level confirmed");
-                
-                if (packet.isUpdate) {
-                    // Handle position update - update the center of existing particles
-                    ArsAffinity.LOGGER.debug("ParticleEffectPacket: Position update received: ({}, {}, {})", 
-                        packet.posX, packet.posY, packet.posZ);
-                    
-                    SpiralParticleHelper.updateParticleCenter(packet.playerId, packet.schoolId, packet.posX, packet.posY, packet.posZ);
-                } else {
-                    // Handle initial spawn
-                    Player targetPlayer = minecraft.level.getEntity(packet.playerId) instanceof Player p ? p : null;
-                    
-                    if (targetPlayer != null) {
-                        ArsAffinity.LOGGER.debug("ParticleEffectPacket: Target player found: {} at position ({}, {}, {})", 
-                            targetPlayer.getName().getString(), targetPlayer.getX(), targetPlayer.getY(), targetPlayer.getZ());
-                        
-                        SpellSchool school = getSchoolFromId(packet.schoolId);
-                        if (school != null) {
-                            ArsAffinity.LOGGER.debug("ParticleEffectPacket: School found: {}, spawning {} particles", 
-                                school.getId(), packet.particleCount);
-                            ArsAffinity.LOGGER.debug("ParticleEffectPacket: Calling SpiralParticleHelper.spawnSpiralParticles");
-                                
-                            try {
-                                SpiralParticleHelper.spawnSpiralParticles(
-                                    minecraft.level,
-                                    targetPlayer,
-                                    school,
-                                    packet.particleCount
-                                );
-                                
-                                ArsAffinity.LOGGER.debug("ParticleEffectPacket: Particles spawned successfully");
-                            } catch (Exception e) {
-                                ArsAffinity.LOGGER.error("ParticleEffectPacket: Error spawning particles: {}", e.getMessage(), e);
-                            }
-                        } else {
-                            ArsAffinity.LOGGER.warn("ParticleEffectPacket: School not found for ID: {}", packet.schoolId);
-                        }
-                    } else {
-                        ArsAffinity.LOGGER.warn("ParticleEffectPacket: Target player not found for ID: {}", packet.playerId);
-                    }
-                }
-            } else {
-                ArsAffinity.LOGGER.warn("ParticleEffectPacket: Not on client side or level is null");
+        public static void handle(ParticleEffectPacket packet, Minecraft minecraft) {
+            if (minecraft.level == null) {
+                return;
             }
-            ArsAffinity.LOGGER.debug("=== PARTICLE EFFECT PACKET HANDLING COMPLETE ===");
-        }
-        
-        private static SpellSchool getSchoolFromId(String schoolId) {
-            return switch (schoolId) {
-                // Short format (legacy/fallback)
-                case "fire" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ELEMENTAL_FIRE;
-                case "water" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ELEMENTAL_WATER;
-                case "earth" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ELEMENTAL_EARTH;
-                case "air" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ELEMENTAL_AIR;
-                case "abjuration" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.ABJURATION;
-                case "necromancy" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.NECROMANCY;
-                case "conjuration" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.CONJURATION;
-                case "manipulation" -> com.hollingsworth.arsnouveau.api.spell.SpellSchools.MANIPULATION;
-                default -> {
-                    ArsAffinity.LOGGER.warn("ParticleEffectPacket: Unknown school ID: '{}'", schoolId);
-                    yield null;
+
+            for (int i = 0; i < packet.entityIds.length; i++) {
+                // Anchors outside the client's view are expected in busy areas, skip them quietly
+                if (!(minecraft.level.getEntity(packet.entityIds[i]) instanceof Player targetPlayer)) {
+                    continue;
+                }
+
+                SpellSchool school = SchoolRelationshipHelper.getSchoolByIndex(packet.schoolIndices[i]);
+                if (school == null) {
+                    ArsAffinity.LOGGER.warn("ParticleEffectPacket: Unknown school index: {}", packet.schoolIndices[i]);
+                    continue;
                 }
-            };
+
+                try {
+                    SpiralParticleHelper.spawnSpiralParticles(
+                        minecraft.level,
+                        targetPlayer,
+                        school,
+                        Byte.toUnsignedInt(packet.particleCounts[i])
+                    );
+                } catch (Exception e) {
+                    ArsAffinity.LOGGER.error("ParticleEffectPacket: Error spawning particles: {}", e.getMessage(), e);
+                }
+            }
         }
     }
 }
@@ -0,0 +1,68 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.perk.PerkTreeSync;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * Sent at login with the content hash of the server's perk trees. The client uses its own tree if it matches,
+ * otherwise a cached copy, and only requests the tree files when neither does.
+ */
+public class PerkTreeHashPacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<PerkTreeHashPacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "perk_tree_hash"));
+
+    public static final StreamCodec<FriendlyByteBuf, PerkTreeHashPacket> CODEC =
+        StreamCodec.ofMember(PerkTreeHashPacket::encode, PerkTreeHashPacket::new);
+
+    private final String hash;
+
+    public PerkTreeHashPacket(String hash) {
+        this.hash = hash;
+    }
+
+    public PerkTreeHashPacket(FriendlyByteBuf buffer) {
+        this.hash = buffer.readUtf(64);
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeUtf(hash, 64);
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+        // The integrated server already published the same tree
+        if (minecraft.hasSingleplayerServer()) {
+            return;
+        }
+        if (hash.equals(PerkTreeManager.getTree().getContentHash())) {
+            return;
+        }
+        if (PerkTreeSync.applyCached(hash)) {
+            ArsAffinity.LOGGER.debug("Using cached perk trees {}", hash);
+            return;
+        }
+        ArsAffinity.LOGGER.debug("Requesting perk trees {} from server", hash);
+        PerkTreeSync.expect(hash);
+        Networking.sendToServer(new RequestPerkTreePacket());
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.perk.CompiledPerkTree;
+import com.github.ars_affinity.perk.PerkTreeSync;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+import java.io.IOException;
+
+/**
+ * All of the server's perk tree files, gzipped. If they match the hash announced by {@link PerkTreeHashPacket},
+ * the client publishes them, caches them under that hash and asks for a fresh affinity sync, since the one
+ * sent at login was read against its old tree.
+ */
+public class PerkTreeSyncPacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<PerkTreeSyncPacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "perk_tree_sync"));
+
+    public static final StreamCodec<FriendlyByteBuf, PerkTreeSyncPacket> CODEC =
+        StreamCodec.ofMember(PerkTreeSyncPacket::encode, PerkTreeSyncPacket::new);
+
+    private final byte[] payload;
+
+    public PerkTreeSyncPacket(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public PerkTreeSyncPacket(FriendlyByteBuf buffer) {
+        this.payload = buffer.readByteArray(PerkTreeSync.MAX_PAYLOAD_BYTES);
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeByteArray(payload);
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+        CompiledPerkTree tree;
+        try {
+            tree = PerkTreeSync.applyRequested(PerkTreeSync.decode(payload));
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.error("Invalid perk tree payload from server: {}", e.getMessage());
+            return;
+        }
+        if (tree == null) {
+            return;
+        }
+        PerkTreeSync.writeCache(tree.getContentHash(), payload);
+        ArsAffinity.LOGGER.debug("Received perk trees {} ({} nodes)", tree.getContentHash(), tree.size());
+        Networking.sendToServer(new RequestAffinityResyncPacket());
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
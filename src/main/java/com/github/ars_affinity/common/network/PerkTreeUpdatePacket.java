@@ -0,0 +1,142 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.perk.CompiledPerkTree;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.perk.PerkTreeSync;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Perk tree files of the schools that changed in a server-side reload, with the hash of the server's new tree.
+ * A client holding the server's previous tree replaces those schools and recompiles it; if it doesn't hold that
+ * tree, or the result doesn't match the hash, it fetches the whole tree instead. A full affinity sync follows so
+ * allocations resolve against the new nodes.
+ * Schools are varint indices into {@link SchoolRelationshipHelper#ALL_SCHOOLS}; a missing source removes the school.
+ */
+public class PerkTreeUpdatePacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<PerkTreeUpdatePacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "perk_tree_update"));
+
+    public static final StreamCodec<FriendlyByteBuf, PerkTreeUpdatePacket> CODEC =
+        StreamCodec.ofMember(PerkTreeUpdatePacket::encode, PerkTreeUpdatePacket::new);
+
+    private static final int MAX_SOURCE_LENGTH = 1 << 18;
+    private static final int HASH_LENGTH = 64;
+
+    private final String hash;
+    private final int[] schoolIndices;
+    private final String[] sources;
+
+    /**
+     * Build an update carrying the given schools of a tree.
+     */
+    public PerkTreeUpdatePacket(CompiledPerkTree tree, List<SpellSchool> schools) {
+        this.hash = tree.getContentHash();
+        this.schoolIndices = new int[schools.size()];
+        this.sources = new String[schools.size()];
+        for (int i = 0; i < schools.size(); i++) {
+            schoolIndices[i] = SchoolRelationshipHelper.getSchoolIndex(schools.get(i));
+            sources[i] = tree.getSource(schoolIndices[i]);
+        }
+    }
+
+    public PerkTreeUpdatePacket(FriendlyByteBuf buffer) {
+        this.hash = buffer.readUtf(HASH_LENGTH);
+        int count = buffer.readVarInt();
+        this.schoolIndices = new int[count];
+        this.sources = new String[count];
+        for (int i = 0; i < count; i++) {
+            schoolIndices[i] = buffer.readVarInt();
+            sources[i] = buffer.readBoolean() ? buffer.readUtf(MAX_SOURCE_LENGTH) : null;
+        }
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeUtf(hash, HASH_LENGTH);
+        buffer.writeVarInt(schoolIndices.length);
+        for (int i = 0; i < schoolIndices.length; i++) {
+            buffer.writeVarInt(schoolIndices[i]);
+            buffer.writeBoolean(sources[i] != null);
+            if (sources[i] != null) {
+                buffer.writeUtf(sources[i], MAX_SOURCE_LENGTH);
+            }
+        }
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+        // The integrated server already published the same tree
+        if (minecraft.hasSingleplayerServer()) {
+            return;
+        }
+        if (!PerkTreeSync.isValidHash(hash) || hash.equals(PerkTreeManager.getTree().getContentHash())) {
+            return;
+        }
+        if (!PerkTreeSync.hasRemoteTree() || PerkTreeSync.isRequestPending()) {
+            // The published tree isn't the server's previous one, so the changed schools can't be merged into it
+            fetchFullTree();
+            return;
+        }
+
+        CompiledPerkTree current = PerkTreeManager.getTree();
+        Map<SpellSchool, String> updated = new HashMap<>();
+        for (int i = 0; i < SchoolRelationshipHelper.ALL_SCHOOLS.length; i++) {
+            if (current.getSource(i) != null) {
+                updated.put(SchoolRelationshipHelper.ALL_SCHOOLS[i], current.getSource(i));
+            }
+        }
+        for (int i = 0; i < schoolIndices.length; i++) {
+            SpellSchool school = SchoolRelationshipHelper.getSchoolByIndex(schoolIndices[i]);
+            if (school == null) {
+                continue;
+            }
+            if (sources[i] != null) {
+                updated.put(school, sources[i]);
+            } else {
+                updated.remove(school);
+            }
+        }
+
+        CompiledPerkTree tree = PerkTreeSync.applyUpdate(updated, hash);
+        if (tree == null) {
+            fetchFullTree();
+            return;
+        }
+        PerkTreeSync.writeCache(hash, PerkTreeSync.getPayload(tree));
+        ArsAffinity.LOGGER.debug("Applied perk tree update for {} schools from server", schoolIndices.length);
+    }
+
+    private void fetchFullTree() {
+        if (PerkTreeSync.applyCached(hash)) {
+            ArsAffinity.LOGGER.debug("Using cached perk trees {}", hash);
+            return;
+        }
+        ArsAffinity.LOGGER.debug("Requesting perk trees {} from server", hash);
+        PerkTreeSync.expect(hash);
+        Networking.sendToServer(new RequestPerkTreePacket());
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * Sent by the client when it notices a gap in delta sequence numbers; answered with a full snapshot.
+ */
+public class RequestAffinityResyncPacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<RequestAffinityResyncPacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "request_affinity_resync"));
+
+    public static final StreamCodec<FriendlyByteBuf, RequestAffinityResyncPacket> CODEC =
+        StreamCodec.ofMember(RequestAffinityResyncPacket::encode, RequestAffinityResyncPacket::new);
+
+    public RequestAffinityResyncPacket() {
+    }
+
+    public RequestAffinityResyncPacket(FriendlyByteBuf buffer) {
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+        server.execute(() -> PlayerAffinityDataProvider.syncFullToClient(player));
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.perk.CompiledPerkTree;
+import com.github.ars_affinity.perk.PerkTreeManager;
+import com.github.ars_affinity.perk.PerkTreeSync;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * Sent by a client whose cache doesn't have the server's perk trees; answered with {@link PerkTreeSyncPacket}.
+ */
+public class RequestPerkTreePacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<RequestPerkTreePacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "request_perk_tree"));
+
+    public static final StreamCodec<FriendlyByteBuf, RequestPerkTreePacket> CODEC =
+        StreamCodec.ofMember(RequestPerkTreePacket::encode, RequestPerkTreePacket::new);
+
+    public RequestPerkTreePacket() {
+    }
+
+    public RequestPerkTreePacket(FriendlyByteBuf buffer) {
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+        server.execute(() -> {
+            CompiledPerkTree tree = PerkTreeManager.getTree();
+            byte[] payload = PerkTreeSync.getPayload(tree);
+            Networking.sendToPlayerClient(new PerkTreeSyncPacket(payload), player);
+            ArsAffinity.LOGGER.debug("Sent perk trees ({} bytes) to {}", payload.length, player.getName().getString());
+        });
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.ars_affinity.common.network;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.client.screen.perk.PerkTreeScreen;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * Compact progression update carrying only the schools whose points or percentage changed
+ * since the last sync. Schools are sent as varint indices into {@link SchoolRelationshipHelper#ALL_SCHOOLS}
+ * and percentages as fixed point varints. Allocations are never part of a delta.
+ */
+public class SyncAffinityProgressDeltaPacket extends AbstractPacket {
+
+    public static final CustomPacketPayload.Type<SyncAffinityProgressDeltaPacket> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ArsAffinity.MOD_ID, "sync_affinity_progress_delta"));
+
+    public static final StreamCodec<FriendlyByteBuf, SyncAffinityProgressDeltaPacket> CODEC =
+        StreamCodec.ofMember(SyncAffinityProgressDeltaPacket::encode, SyncAffinityProgressDeltaPacket::new);
+
+    private final int sequence;
+    private final int[] schoolIndices;
+    private final int[] points;
+    private final int[] availablePoints;
+    private final int[] percentages;
+
+    private SyncAffinityProgressDeltaPacket(int sequence, int[] schoolIndices, int[] points, int[] availablePoints, int[] percentages) {
+        this.sequence = sequence;
+        this.schoolIndices = schoolIndices;
+        this.points = points;
+        this.availablePoints = availablePoints;
+        this.percentages = percentages;
+    }
+
+    /**
+     * Build a delta against the last synced state.
+     *
+     * @return The packet, or null if nothing observable changed
+     */
+    public static SyncAffinityProgressDeltaPacket create(PlayerAffinityData data) {
+        AffinitySyncState state = data.getSyncState();
+        int changed = state.collectChangedSchools(data);
+        if (changed == 0) {
+            return null;
+        }
+
+        int count = Integer.bitCount(changed);
+        int[] schoolIndices = new int[count];
+        int[] points = new int[count];
+        int[] availablePoints = new int[count];
+        int[] percentages = new int[count];
+
+        int entry = 0;
+        for (int i = 0; i < SchoolRelationshipHelper.ALL_SCHOOLS.length; i++) {
+            if ((changed & (1 << i)) == 0) {
+                continue;
+            }
+            SpellSchool school = SchoolRelationshipHelper.ALL_SCHOOLS[i];
+            schoolIndices[entry] = i;
+            points[entry] = data.getSchoolPoints(school);
+            availablePoints[entry] = data.getAvailablePoints(school);
+            percentages[entry] = AffinitySyncState.quantizePercentage(data.getSchoolPercentage(school));
+            entry++;
+        }
+
+        return new SyncAffinityProgressDeltaPacket(state.nextSequence(), schoolIndices, points, availablePoints, percentages);
+    }
+
+    public SyncAffinityProgressDeltaPacket(FriendlyByteBuf buffer) {
+        this.sequence = buffer.readVarInt();
+        int count = buffer.readVarInt();
+        this.schoolIndices = new int[count];
+        this.points = new int[count];
+        this.availablePoints = new int[count];
+        this.percentages = new int[count];
+        for (int i = 0; i < count; i++) {
+            schoolIndices[i] = buffer.readVarInt();
+            points[i] = buffer.readVarInt();
+            availablePoints[i] = buffer.readVarInt();
+            percentages[i] = buffer.readVarInt();
+        }
+    }
+
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(sequence);
+        buffer.writeVarInt(schoolIndices.length);
+        for (int i = 0; i < schoolIndices.length; i++) {
+            buffer.writeVarInt(schoolIndices[i]);
+            buffer.writeVarInt(points[i]);
+            buffer.writeVarInt(availablePoints[i]);
+            buffer.writeVarInt(percentages[i]);
+        }
+    }
+
+    @Override
+    public void onClientReceived(Minecraft minecraft, Player player) {
+        if (player == null) {
+            return;
+        }
+
+        PlayerAffinityData clientData = PlayerAffinityDataProvider.getPlayerAffinityData(player);
+        if (clientData == null) {
+            return;
+        }
+
+        for (int i = 0; i < schoolIndices.length; i++) {
+            SpellSchool school = SchoolRelationshipHelper.getSchoolByIndex(schoolIndices[i]);
+            if (school != null) {
+                clientData.applySyncedSchoolState(school, points[i], availablePoints[i],
+                    AffinitySyncState.dequantizePercentage(percentages[i]));
+            }
+        }
+
+        // Values are absolute, so applying them is always safe; a gap only means other schools may be stale
+        if (!clientData.getSyncState().acceptSequence(sequence)) {
+            ArsAffinity.LOGGER.debug("Affinity sync gap detected at sequence {}, requesting full resync", sequence);
+            Networking.sendToServer(new RequestAffinityResyncPacket());
+        }
+
+        minecraft.execute(() -> {
+            if (minecraft.screen instanceof PerkTreeScreen screen) {
+                screen.refreshData();
+            }
+        });
+    }
+
+    @Override
+    public void onServerReceived(MinecraftServer server, ServerPlayer player) {
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -4,8 +4,6 @@ import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.capability.PlayerAffinityData;
 import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
 import com.github.ars_affinity.client.screen.perk.PerkTreeScreen;
-import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
-import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import com.hollingsworth.arsnouveau.common.network.AbstractPacket;
 import net.minecraft.client.Minecraft;
 import net.minecraft.nbt.CompoundTag;
@@ -17,9 +15,6 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class SyncPlayerAffinityDataPacket extends AbstractPacket {
     
     public static final CustomPacketPayload.Type<SyncPlayerAffinityDataPacket> TYPE = 
@@ -28,56 +23,21 @@ public class SyncPlayerAffinityDataPacket extends AbstractPacket {
     public static final StreamCodec<FriendlyByteBuf, SyncPlayerAffinityDataPacket> CODEC = 
         StreamCodec.ofMember(SyncPlayerAffinityDataPacket::encode, SyncPlayerAffinityDataPacket::new);
     
-    private final Map<SpellSchool, Integer> schoolPoints;
-    private final Map<SpellSchool, Float> schoolPercentages;
+    private final int sequence;
     private final CompoundTag serializedData;
     
     public SyncPlayerAffinityDataPacket(PlayerAffinityData data, Player player) {
-        this.schoolPoints = data.getAllSchoolPoints();
-        this.schoolPercentages = data.getAllSchoolPercentages();
+        this.sequence = data.getSyncState().markFullSync(data);
         this.serializedData = data.serializeNBT(player.level().registryAccess());
     }
     
     public SyncPlayerAffinityDataPacket(FriendlyByteBuf buffer) {
-        this.schoolPoints = new HashMap<>();
-        this.schoolPercentages = new HashMap<>();
-        
-        int pointsCount = buffer.readInt();
-        for (int i = 0; i < pointsCount; i++) {
-            String schoolId = buffer.readUtf();
-            int points = buffer.readInt();
-            SpellSchool school = getSchoolFromId(schoolId);
-            if (school != null) {
-                schoolPoints.put(school, points);
-            }
-        }
-        
-        int percentagesCount = buffer.readInt();
-        for (int i = 0; i < percentagesCount; i++) {
-            String schoolId = buffer.readUtf();
-            float percentage = buffer.readFloat();
-            SpellSchool school = getSchoolFromId(schoolId);
-            if (school != null) {
-                schoolPercentages.put(school, percentage);
-            }
-        }
-        
+        this.sequence = buffer.readVarInt();
         this.serializedData = buffer.readNbt();
     }
     
     public void encode(FriendlyByteBuf buffer) {
-        buffer.writeInt(schoolPoints.size());
-        for (Map.Entry<SpellSchool, Integer> entry : schoolPoints.entrySet()) {
-            buffer.writeUtf(entry.getKey().getId().toString());
-            buffer.writeInt(entry.getValue());
-        }
-        
-        buffer.writeInt(schoolPercentages.size());
-        for (Map.Entry<SpellSchool, Float> entry : schoolPercentages.entrySet()) {
-            buffer.writeUtf(entry.getKey().getId().toString());
-            buffer.writeFloat(entry.getValue());
-        }
-        
+        buffer.writeVarInt(sequence);
         buffer.writeNbt(serializedData);
     }
     
@@ -92,6 +52,7 @@ public class SyncPlayerAffinityDataPacket extends AbstractPacket {
         if (clientData != null && serializedData != null) {
             try {
                 clientData.deserializeNBT(player.level().registryAccess(), serializedData);
+                clientData.getSyncState().resetSequence(sequence);
                 ArsAffinity.LOGGER.debug("Successfully synced affinity data to client for player {}", 
                     player.getName().getString());
                 minecraft.execute(() -> {
@@ -113,20 +74,4 @@ public class SyncPlayerAffinityDataPacket extends AbstractPacket {
     public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
         return TYPE;
     }
-    
-    private static SpellSchool getSchoolFromId(String id) {
-        return switch (id) {
-            case "ars_nouveau:elemental_fire" -> SpellSchools.ELEMENTAL_FIRE;
-            case "ars_nouveau:elemental_water" -> SpellSchools.ELEMENTAL_WATER;
-            case "ars_nouveau:elemental_earth" -> SpellSchools.ELEMENTAL_EARTH;
-            case "ars_nouveau:elemental_air" -> SpellSchools.ELEMENTAL_AIR;
-            case "ars_nouveau:abjuration" -> SpellSchools.ABJURATION;
-            case "ars_nouveau:necromancy" -> SpellSchools.NECROMANCY;
-            case "ars_nouveau:conjuration" -> SpellSchools.CONJURATION;
-            case "ars_nouveau:manipulation" -> SpellSchools.MANIPULATION;
-            default -> null;
-        };
-    }
 }
-
-
@@ -1,6 +1,7 @@
 package com.github.ars_affinity.common.ritual;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.AffinityLeaderboards;
 import com.github.ars_affinity.capability.PlayerAffinityData;
 import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.github.ars_affinity.util.ChatMessageHelper;
@@ -76,6 +77,7 @@ public class RitualAmnesia extends AbstractRitual {
         for (Player player : players) {
             if (player instanceof net.minecraft.server.level.ServerPlayer serverPlayer) {
                 PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
+                if (data == null) continue;
                 int pointsToReset = data.getSchoolPoints(school);
                 
                 // Reset school points and percentage
@@ -84,6 +86,7 @@ public class RitualAmnesia extends AbstractRitual {
                 
                 data.respecSchool(school);
                 PlayerAffinityDataHelper.savePlayerData(player);
+                AffinityLeaderboards.updatePlayer(player);
                 ChatMessageHelper.sendSchoolResetMessage(serverPlayer, school, pointsToReset);
             }
         }
@@ -12,6 +12,9 @@ public class ArsAffinityConfig {
     public static ModConfigSpec.DoubleValue AFFINITY_SCALING_MINIMUM_FACTOR;
     public static ModConfigSpec.DoubleValue GLOBAL_SCALING_DECAY_STRENGTH;
     public static ModConfigSpec.DoubleValue GLOBAL_SCALING_MINIMUM_FACTOR;
+    public static ModConfigSpec.IntValue AFFINITY_PROGRESS_FLUSH_INTERVAL_TICKS;
+    public static ModConfigSpec.IntValue AFFINITY_SAVE_INTERVAL_TICKS;
+    public static ModConfigSpec.IntValue AFFINITY_SAVE_THREADS;
     
     public static ModConfigSpec.IntValue DEEP_UNDERGROUND_Y_THRESHOLD;
     
@@ -42,6 +45,11 @@ public class ArsAffinityConfig {
     // UI Configuration
     public static ModConfigSpec.BooleanValue ENABLE_SPELL_BOOK_BUTTON;
     
+    // Diagnostics Configuration
+    public static ModConfigSpec.IntValue METRICS_EXPORT_INTERVAL_TICKS;
+    public static ModConfigSpec.BooleanValue VERIFY_SCALING_TABLES;
+    public static ModConfigSpec.BooleanValue WATCH_PERK_TREES;
+    
     static {
         ModConfigSpec.Builder SERVER_BUILDER = new ModConfigSpec.Builder();
         
@@ -76,6 +84,15 @@ public class ArsAffinityConfig {
         GLOBAL_SCALING_MINIMUM_FACTOR = SERVER_BUILDER
             .comment("Minimum percentage of original gain when you have many total points (0.1 = 10%, 0.05 = 5%)")
             .defineInRange("globalScalingMinimumFactor", 0.2, 0.01, 0.5);
+        AFFINITY_PROGRESS_FLUSH_INTERVAL_TICKS = SERVER_BUILDER
+            .comment("How many server ticks spell affinity progress is batched for before being applied, saved and synced (1 = every tick)")
+            .defineInRange("progressFlushIntervalTicks", 1, 1, 100);
+        AFFINITY_SAVE_INTERVAL_TICKS = SERVER_BUILDER
+            .comment("How many server ticks changed affinity data may wait before being written to player data. Data is always written on logout and world save (0 = write immediately)")
+            .defineInRange("saveIntervalTicks", 200, 0, 6000);
+        AFFINITY_SAVE_THREADS = SERVER_BUILDER
+            .comment("Worker threads that encode affinity data for batched saves; the server thread only takes a snapshot. Read at first save, needs a restart to change (0 = encode on the server thread)")
+            .defineInRange("saveThreads", 2, 0, 8);
         SERVER_BUILDER.pop();
         
         
@@ -121,7 +138,7 @@ public class ArsAffinityConfig {
         
         SERVER_BUILDER.comment("Glyph Blacklist Configuration").push("glyph_blacklist");
         GLYPH_BLACKLIST = SERVER_BUILDER
-            .comment("List of glyph IDs to ignore for affinity progress tracking. Use format 'modid:glyph_name' (e.g., 'ars_nouveau:glyph_break')")
+            .comment("List of glyph IDs to ignore for affinity progress tracking. Use format 'modid:glyph_name' (e.g., 'ars_nouveau:glyph_break'), 'modid:*' for every glyph of a mod, or '#modid:tag' for a glyph item tag")
             .defineList("blacklistedGlyphs", List.of("ars_nouveau:glyph_break", "ars_nouveau:glyph_craft"), () -> "", o -> o instanceof String);
         SERVER_BUILDER.pop();
         
@@ -131,6 +148,21 @@ public class ArsAffinityConfig {
             .define("enableSpellBookButton", true);
         SERVER_BUILDER.pop();
         
+        SERVER_BUILDER.comment("Perk Tree Configuration").push("perk_trees");
+        WATCH_PERK_TREES = SERVER_BUILDER
+            .comment("Reload config/ars_affinity/perk_trees when a file there changes. /ars-affinity reload works either way")
+            .define("watchPerkTrees", true);
+        SERVER_BUILDER.pop();
+        
+        SERVER_BUILDER.comment("Diagnostics Configuration").push("diagnostics");
+        METRICS_EXPORT_INTERVAL_TICKS = SERVER_BUILDER
+            .comment("How often handler metrics are written to config/ars_affinity/metrics.csv, in server ticks (0 = never; see /ars-affinity stats)")
+            .defineInRange("metricsExportIntervalTicks", 0, 0, 72000);
+        VERIFY_SCALING_TABLES = SERVER_BUILDER
+            .comment("Check the precomputed affinity scaling tables against the exact formula and log any mismatch. Slower, for debugging only")
+            .define("verifyScalingTables", false);
+        SERVER_BUILDER.pop();
+        
         SERVER_CONFIG = SERVER_BUILDER.build();
     }
 
@@ -0,0 +1,16 @@
+package com.github.ars_affinity.event;
+
+import com.github.ars_affinity.capability.AffinityLeaderboards;
+import net.neoforged.bus.api.SubscribeEvent;
+
+/**
+ * Moves players on the leaderboards as soon as they earn points, rather than at their next save.
+ * Allocation, respec and reset paths update the leaderboards themselves.
+ */
+public class AffinityLeaderboardEvents {
+
+    @SubscribeEvent
+    public static void onPointAllocated(SchoolAffinityPointAllocatedEvent event) {
+        AffinityLeaderboards.updatePlayer(event.getPlayer());
+    }
+}
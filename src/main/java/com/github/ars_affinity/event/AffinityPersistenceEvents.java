@@ -0,0 +1,33 @@
+package com.github.ars_affinity.event;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Drives write-behind persistence of player affinity data: changed records are written on the
+ * configured cadence and at the start of every world save, so that save writes them to disk.
+ */
+public class AffinityPersistenceEvents {
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        int interval = ArsAffinityConfig.AFFINITY_SAVE_INTERVAL_TICKS.get();
+        if (interval <= 0 || event.getServer().getTickCount() % interval != 0) {
+            return;
+        }
+        PlayerAffinityDataProvider.saveDirtyData(event.getServer());
+    }
+
+    /**
+     * Called before the player list writes player files. Level save events come too late for that: by then
+     * player files and saved data of the save are already written.
+     */
+    public static void flushBeforeSave(MinecraftServer server) {
+        int saved = PlayerAffinityDataProvider.saveDirtyData(server, true);
+        ArsAffinity.LOGGER.debug("World save wrote {} changed affinity records", saved);
+    }
+}
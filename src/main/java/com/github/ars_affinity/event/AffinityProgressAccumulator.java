@@ -0,0 +1,177 @@
+package com.github.ars_affinity.event;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
+import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import com.github.ars_affinity.perk.PointCalculationHelper;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coalesces affinity progress from resolved spell segments and applies it in batches.
+ * Spell resolution only adds mana to a per-player array indexed by school; scaling, point awards,
+ * {@link SchoolAffinityPointAllocatedEvent}s, persistence and sync happen once per flush.
+ */
+public class AffinityProgressAccumulator {
+
+    private static final int SCHOOL_COUNT = SchoolRelationshipHelper.ALL_SCHOOLS.length;
+
+    private static final Map<UUID, PendingProgress> pending = new HashMap<>();
+
+    private static class PendingProgress {
+        private Player player;
+        private final float[] mana = new float[SCHOOL_COUNT];
+        private boolean hasProgress;
+
+        private PendingProgress(Player player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Queue mana spent in a school for the next flush. Does not allocate once the player has an entry.
+     */
+    public static void addMana(Player player, SpellSchool school, float mana) {
+        addMana(player, SchoolRelationshipHelper.getSchoolIndex(school), mana);
+    }
+
+    /**
+     * Queue mana for every school at once, indexed like {@link SchoolRelationshipHelper#ALL_SCHOOLS}.
+     */
+    public static void addMana(Player player, float[] manaBySchool) {
+        for (int i = 0; i < manaBySchool.length; i++) {
+            addMana(player, i, manaBySchool[i]);
+        }
+    }
+
+    private static void addMana(Player player, int index, float mana) {
+        if (index < 0 || mana <= 0.0f) {
+            return;
+        }
+        PendingProgress progress = pending.get(player.getUUID());
+        if (progress == null) {
+            progress = new PendingProgress(player);
+            pending.put(player.getUUID(), progress);
+        } else if (progress.player != player) {
+            // Respawned or changed dimension; keep what the old entity spent but not yet flushed
+            progress.player = player;
+        }
+        progress.mana[index] += mana;
+        progress.hasProgress = true;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int interval = ArsAffinityConfig.AFFINITY_PROGRESS_FLUSH_INTERVAL_TICKS.get();
+        if (event.getServer().getTickCount() % interval != 0) {
+            return;
+        }
+        flushAll();
+    }
+
+    public static void flushAll() {
+        for (PendingProgress progress : pending.values()) {
+            flush(progress);
+        }
+        // Drop entries for entities that are gone (logout, respawn); a new entry is created on the next cast
+        pending.values().removeIf(progress -> progress.player.isRemoved());
+    }
+
+    /**
+     * Apply any queued progress for a player immediately, e.g. before their data is saved on logout.
+     */
+    public static void flush(Player player) {
+        PendingProgress progress = pending.remove(player.getUUID());
+        if (progress != null) {
+            flush(progress);
+        }
+    }
+
+    public static void clear() {
+        pending.clear();
+    }
+
+    private static void flush(PendingProgress progress) {
+        if (!progress.hasProgress) {
+            return;
+        }
+        progress.hasProgress = false;
+
+        Player player = progress.player;
+        PlayerAffinityData affinityData = PlayerAffinityDataHelper.getPlayerAffinityData(player);
+        if (affinityData == null) {
+            ArsAffinity.LOGGER.warn("Could not get affinity data for player: {}", player.getName().getString());
+            Arrays.fill(progress.mana, 0.0f);
+            return;
+        }
+
+        boolean hasChanges = false;
+        for (int i = 0; i < SCHOOL_COUNT; i++) {
+            float mana = progress.mana[i];
+            if (mana <= 0.0f) {
+                continue;
+            }
+            progress.mana[i] = 0.0f;
+
+            SpellSchool school = SchoolRelationshipHelper.ALL_SCHOOLS[i];
+            float currentPercentage = affinityData.getSchoolPercentage(school);
+            int totalPointsAcrossAllSchools = affinityData.getTotalPointsAcrossAllSchools();
+
+            float percentageIncrease = PointCalculationHelper.calculatePercentageIncrease(
+                mana, currentPercentage, totalPointsAcrossAllSchools);
+
+            if (percentageIncrease > 0.0f) {
+                int pointsAwarded = affinityData.addSchoolProgress(school, percentageIncrease);
+                AffinityTrace.record(TraceEvent.PROGRESS_FLUSHED, player.getId(), i, percentageIncrease);
+
+                if (pointsAwarded > 0) {
+                    AffinityTrace.record(TraceEvent.POINTS_AWARDED, player.getId(), i, pointsAwarded);
+                    SchoolAffinityPointAllocatedEvent event = new SchoolAffinityPointAllocatedEvent(
+                        player,
+                        school,
+                        pointsAwarded,
+                        affinityData.getSchoolPoints(school)
+                    );
+                    NeoForge.EVENT_BUS.post(event);
+                }
+
+                hasChanges = true;
+            }
+        }
+
+        if (hasChanges) {
+            if (ArsAffinity.LOGGER.isDebugEnabled()) {
+                StringBuilder affinityLog = new StringBuilder();
+                for (SpellSchool affinitySchool : SchoolRelationshipHelper.ALL_SCHOOLS) {
+                    if (affinityLog.length() > 0) {
+                        affinityLog.append(", ");
+                    }
+                    affinityLog.append(affinitySchool.getTextComponent().getString())
+                        .append(": ")
+                        .append(affinityData.getSchoolPoints(affinitySchool))
+                        .append(" pts");
+                }
+                ArsAffinity.LOGGER.debug("Affinity Points: {}", affinityLog);
+            }
+
+            PlayerAffinityDataHelper.savePlayerData(player);
+            PlayerAffinityDataProvider.syncToClient(player);
+        }
+    }
+}
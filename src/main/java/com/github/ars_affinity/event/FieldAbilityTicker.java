@@ -1,14 +1,42 @@
 package com.github.ars_affinity.event;
 
+import com.github.ars_affinity.common.ability.field.AbstractFieldAbility;
 import com.github.ars_affinity.common.ability.field.ActiveFieldRegistry;
+import com.github.ars_affinity.common.network.Networking;
 import net.neoforged.bus.api.SubscribeEvent;
-import net.neoforged.neoforge.event.tick.PlayerTickEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 
 public class FieldAbilityTicker {
 	@SubscribeEvent
-	public static void onPlayerTick(PlayerTickEvent.Post event) {
-		if (!(event.getEntity() instanceof ServerPlayer sp)) return;
-		ActiveFieldRegistry.tick(sp);
+	public static void onLevelTick(LevelTickEvent.Post event) {
+		if (!(event.getLevel() instanceof ServerLevel level)) return;
+		ActiveFieldRegistry.tickLevel(level);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Players who come into view of someone holding a field missed its start, send them the field's particles.
+	 */
+	@SubscribeEvent
+	public static void onStartTracking(PlayerEvent.StartTracking event) {
+		if (!(event.getTarget() instanceof ServerPlayer owner) || !(event.getEntity() instanceof ServerPlayer viewer)) return;
+		AbstractFieldAbility ability = ActiveFieldRegistry.get(owner);
+		if (ability != null) {
+			Networking.sendToPlayerClient(ability.createVisualPacket(), viewer);
+		}
+	}
+
+	/**
+	 * The owner's client drops its fields with the level it leaves.
+	 */
+	@SubscribeEvent
+	public static void onChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+		if (!(event.getEntity() instanceof ServerPlayer owner)) return;
+		AbstractFieldAbility ability = ActiveFieldRegistry.get(owner);
+		if (ability != null) {
+			Networking.sendToPlayerClient(ability.createVisualPacket(), owner);
+		}
+	}
+}
@@ -1,9 +1,10 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -33,8 +34,7 @@ public class FireThornsEvents {
                 // Set the attacker on fire
                 attacker.setRemainingFireTicks(3 * 20);
                 
-                ArsAffinity.LOGGER.debug("Fire Thorns activated! Player {} ignited attacker {} ({}% chance)", 
-                    player.getName().getString(), attacker.getName().getString(), (int)(amount * 100));
+                AffinityTrace.record(TraceEvent.FIRE_THORNS, player.getId(), attacker.getId(), amount);
             }
         }
     }
@@ -1,6 +1,5 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.capability.WetTicks;
 import com.github.ars_affinity.capability.WetTicksCapability;
 import com.github.ars_affinity.capability.WetTicksProvider;
@@ -9,6 +8,8 @@ import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
 import com.github.ars_affinity.registry.ModPotions;
 import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.player.Player;
@@ -69,15 +70,12 @@ public class PassiveHydrationEvents {
                 
             } else {
                 if (wetTicks.getWetTicks() > 0) {
-                    ArsAffinity.LOGGER.debug("HYDRATION - Player {} is not wet, resetting wet ticks to 0", 
-                        player.getName().getString());
                     wetTicks.resetWetTicks();
                     // Save the reset wet ticks
                     WetTicksProvider.savePlayerWetTicks(player);
                 }
                 if (player.hasEffect(ModPotions.HYDRATED_EFFECT)) {
-                    ArsAffinity.LOGGER.debug("HYDRATION - Player {} is no longer wet, removing Hydrated effect", 
-                        player.getName().getString());
+                    AffinityTrace.record(TraceEvent.HYDRATION_LOST, player.getId());
                     player.removeEffect(ModPotions.HYDRATED_EFFECT);
                     lastFoodLevels.remove(player.getUUID());
                 }
@@ -86,8 +84,7 @@ public class PassiveHydrationEvents {
     }
     
     private static void applyHydratedEffect(Player player, float maxAmplification, int wetTicks) {
-        ArsAffinity.LOGGER.debug("HYDRATION - Applying Hydrated effect for player {} - Max amplification: {}, Wet ticks: {}",
-            player.getName().getString(), maxAmplification, wetTicks);
+        AffinityTrace.record(TraceEvent.HYDRATION, player.getId(), wetTicks, maxAmplification);
 
         int targetAmplifier = 0;
         if (wetTicks >= 400 && maxAmplification >= 2.0f) {
@@ -1,9 +1,10 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import net.minecraft.tags.EntityTypeTags;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
@@ -46,8 +47,7 @@ public class PassiveLichFeastEvents {
                 foodData.setSaturation(newSaturation);
             }
             
-            ArsAffinity.LOGGER.debug("Player {} killed non-undead entity {} - PASSIVE_LICH_FEAST restored {} health and {} hunger", 
-                player.getName().getString(), killedEntity.getName().getString(), health, hunger);
+            AffinityTrace.record(TraceEvent.LICH_FEAST, player.getId(), killedEntity.getId(), health);
         }
     }
 } 
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.SpellDamageEvent;
 import com.hollingsworth.arsnouveau.api.mana.IManaCap;
 import com.hollingsworth.arsnouveau.setup.registry.CapabilityRegistry;
@@ -35,8 +36,7 @@ public class PassiveManaTapEvents {
                 if (newMana > currentMana) {
                     playerMana.setMana(newMana);
                     
-                    ArsAffinity.LOGGER.debug("Player {} dealt {} damage - PASSIVE_MANA_TAP restored {} mana ({}%)", 
-                        player.getName().getString(), event.damage, manaRestore, (int)(amount * 100));
+                    AffinityTrace.record(TraceEvent.MANA_TAP, player.getId(), 0, (float) manaRestore);
                 }
             }
         }
@@ -1,8 +1,9 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import net.minecraft.tags.EntityTypeTags;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
@@ -29,8 +30,7 @@ public class PassiveRottingGuiseEvents {
             // Make the undead mob ignore the player
             event.setNewAboutToBeSetTarget(null);
             
-            ArsAffinity.LOGGER.debug("ROTTING_GUISE - Player {} with PASSIVE_ROTTING_GUISE made {} ignore them", 
-                player.getName().getString(), mob.getType().getDescription().getString());
+            AffinityTrace.record(TraceEvent.ROTTING_GUISE, player.getId(), mob.getId());
         }
     }
 }
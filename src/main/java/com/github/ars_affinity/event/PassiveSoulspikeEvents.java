@@ -5,6 +5,8 @@ import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import com.hollingsworth.arsnouveau.api.spell.Spell;
 import com.hollingsworth.arsnouveau.api.spell.SpellContext;
@@ -55,9 +57,7 @@ public class PassiveSoulspikeEvents {
             float amount = AffinityPerkHelper.getPerkAmount(player, AffinityPerkType.PASSIVE_SOULSPIKE);
             if (RANDOM.nextFloat() < amount) {
                 applySoulspike(player, attacker, false);
-                
-                ArsAffinity.LOGGER.debug("Soulspike (Melee) activated! Player {} reflected anima at attacker {} ({}% chance)", 
-                    player.getName().getString(), attacker.getName().getString(), (int)(amount * 100));
+                AffinityTrace.record(TraceEvent.SOULSPIKE, player.getId(), attacker.getId(), amount);
             }
         }
     }
@@ -85,9 +85,7 @@ public class PassiveSoulspikeEvents {
                 
                 if (attacker != null) {
                     applySoulspike(player, attacker, true);
-                    
-                    ArsAffinity.LOGGER.debug("Soulspike (Ranged) activated! Player {} reflected anima at attacker {} ({}% chance)", 
-                        player.getName().getString(), attacker.getName().getString(), (int)(rangedChance * 100));
+                    AffinityTrace.record(TraceEvent.SOULSPIKE, player.getId(), attacker.getId(), rangedChance);
                 }
             }
         }
@@ -123,15 +121,9 @@ public class PassiveSoulspikeEvents {
                     context, 
                     resolver
                 );
-                
-                ArsAffinity.LOGGER.debug("Applied EffectCharm to attacker {} with amplifier {} (player max mana: {})", 
-                    attacker.getName().getString(), amplifier, playerMana != null ? playerMana.getMaxMana() : 0);
             } catch (Exception e) {
                 ArsAffinity.LOGGER.error("Failed to apply EffectCharm to attacker", e);
             }
         }
-        
-        ArsAffinity.LOGGER.debug("Applied soulspike to attacker {} with amplifier {} (player max mana: {})", 
-            attacker.getName().getString(), amplifier, playerMana != null ? playerMana.getMaxMana() : 0);
     }
 }
@@ -6,6 +6,8 @@ import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkManager;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.SummonEvent;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
 import net.minecraft.world.entity.EquipmentSlot;
@@ -27,8 +29,7 @@ public class PassiveSummonDefenseEvents {
                 // Get the highest tier the player has allocated for this perk
                 int highestTier = AffinityPerkHelper.getPerkTier(player, AffinityPerkType.PASSIVE_SUMMON_DEFENSE);
                 equipArmorToSummon(event.summon.getLivingEntity(), highestTier, event.world);
-                ArsAffinity.LOGGER.debug("Player {} summoned entity with PASSIVE_SUMMON_DEFENSE perk at tier {}",
-                    player.getName().getString(), highestTier);
+                AffinityTrace.record(TraceEvent.SUMMON_DEFENSE, player.getId(), highestTier);
             }
         }
     }
@@ -1,9 +1,10 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.SummonEvent;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
@@ -28,8 +29,7 @@ public class PassiveSummonHealthEvents {
             int amplifier = Math.round(amount);
             event.summon.getLivingEntity().addEffect(new MobEffectInstance(MobEffects.HEALTH_BOOST, time, amplifier));
             
-            ArsAffinity.LOGGER.debug("Player {} summoned entity with PASSIVE_SUMMON_HEALTH perk ({}%) - adding health boost effect with amplifier {} for {} seconds", 
-                player.getName().getString(), (int)(amount * 100), amplifier, time / 20);
+            AffinityTrace.record(TraceEvent.SUMMON_HEALTH, player.getId(), amplifier, amount);
         }
     }
 } 
\ No newline at end of file
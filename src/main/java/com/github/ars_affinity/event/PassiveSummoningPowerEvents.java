@@ -6,8 +6,9 @@ import com.github.ars_affinity.config.ArsAffinityConfig;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
-import com.hollingsworth.arsnouveau.api.event.EventQueue;
-import com.hollingsworth.arsnouveau.api.event.ITimedEvent;
+import com.github.ars_affinity.util.TickScheduler;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.SummonEvent;
 import com.hollingsworth.arsnouveau.common.entity.goal.FollowSummonerGoal;
 import net.minecraft.server.level.ServerLevel;
@@ -20,9 +21,13 @@ import net.minecraft.world.entity.player.Player;
 import net.neoforged.bus.api.SubscribeEvent;
 
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 public class PassiveSummoningPowerEvents {
 
+    private static final Map<UUID, TickScheduler.TaskHandle> powerBoostTimers = new HashMap<>();
 
 
     @SubscribeEvent
@@ -44,9 +49,6 @@ public class PassiveSummoningPowerEvents {
 
             // Apply extended distance override
             applyExtendedDistanceOverride(event.summon.getLivingEntity(), player, time, event.world);
-
-            ArsAffinity.LOGGER.debug("Player {} summoned entity with PASSIVE_SUMMONING_POWER perk (+{} power to player) for {} seconds, with extended distance control",
-                player.getName().getString(), summonPowerBonus, time / 20);
         }
     }
 
@@ -72,13 +74,20 @@ public class PassiveSummoningPowerEvents {
             // Add the modifier
             attributeInstance.addPermanentModifier(modifier);
             
-            // Schedule removal - no need to track anything
+            // Schedule removal, replacing the timer of an earlier boost so it can't strip this one early
             if (player.level() instanceof ServerLevel) {
-                PowerBoostTimer timer = new PowerBoostTimer(player, durationTicks);
-                EventQueue.getServerInstance().addEvent(timer);
+                UUID playerId = player.getUUID();
+                WeakReference<Player> playerRef = new WeakReference<>(player);
+                TickScheduler.TaskHandle previous = powerBoostTimers.put(playerId, TickScheduler.schedule(durationTicks, () -> {
+                    powerBoostTimers.remove(playerId);
+                    removePlayerPowerBoost(playerRef.get());
+                }));
+                if (previous != null) {
+                    previous.cancel();
+                }
             }
             
-            ArsAffinity.LOGGER.debug("Applied +{} SUMMON_POWER to player {} for {} ticks", powerBonus, player.getName().getString(), durationTicks);
+            AffinityTrace.record(TraceEvent.SUMMONING_POWER, player.getId(), durationTicks, powerBonus);
         }
     }
 
@@ -90,7 +99,7 @@ public class PassiveSummoningPowerEvents {
             // Create unique modifier ID for this player
             String modifierId = "ars_affinity_summoning_power_boost_" + player.getUUID();
             attributeInstance.removeModifier(ArsAffinity.prefix(modifierId));
-            ArsAffinity.LOGGER.debug("Removed SUMMON_POWER boost for player {}", player.getName().getString());
+            AffinityTrace.record(TraceEvent.SUMMONING_POWER_EXPIRED, player.getId());
         }
     }
 
@@ -110,79 +119,12 @@ public class PassiveSummoningPowerEvents {
         goalSelector.addGoal(2, extendedGoal);
 
         if (level instanceof ServerLevel) {
-            DistanceOverrideTimer timer = new DistanceOverrideTimer(goalSelector, extendedGoal, durationTicks);
-            EventQueue.getServerInstance().addEvent(timer);
+            TickScheduler.schedule(durationTicks, () -> goalSelector.removeGoal(extendedGoal));
         }
     }
 
 
 
-    private static class PowerBoostTimer implements ITimedEvent {
-        private final WeakReference<Player> playerRef;
-        private int ticksRemaining;
-
-        public PowerBoostTimer(Player player, int durationTicks) {
-            this.playerRef = new WeakReference<>(player);
-            this.ticksRemaining = durationTicks;
-        }
-
-        @Override
-        public void tick(boolean serverSide) {
-            if (serverSide) {
-                ticksRemaining--;
-                if (ticksRemaining <= 0) {
-                    Player player = playerRef.get();
-                    if (player != null) {
-                        removePlayerPowerBoost(player);
-                    }
-                }
-            }
-        }
-
-        @Override
-        public boolean isExpired() {
-            return ticksRemaining <= 0 || playerRef.get() == null;
-        }
-    }
-
-    private static class DistanceOverrideTimer implements ITimedEvent {
-        private final GoalSelector goalSelector;
-        private final Goal customGoal;
-        private int ticksRemaining;
-
-        public DistanceOverrideTimer(GoalSelector goalSelector, Goal customGoal, int durationTicks) {
-            this.goalSelector = goalSelector;
-            this.customGoal = customGoal;
-            this.ticksRemaining = durationTicks;
-        }
-
-        @Override
-        public void tick(boolean serverSide) {
-            if (serverSide) {
-                ticksRemaining--;
-                if (ticksRemaining <= 0) {
-                    revertDistanceOverride();
-                }
-            }
-        }
-
-        @Override
-        public boolean isExpired() {
-            return ticksRemaining <= 0;
-        }
-        
-        private void revertDistanceOverride() {
-            if (goalSelector != null && customGoal != null) {
-                goalSelector.removeGoal(customGoal);
-                ArsAffinity.LOGGER.debug("Reverted distance override for summon");
-            }
-        }
-    }
-
-
-
-
-
     private static class CustomExtendedDistanceGoal extends Goal {
         private final com.hollingsworth.arsnouveau.common.entity.IFollowingSummon summon;
         private final Player owner;
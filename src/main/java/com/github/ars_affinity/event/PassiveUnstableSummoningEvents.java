@@ -5,6 +5,8 @@ import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.SummonEvent;
 import com.hollingsworth.arsnouveau.api.event.EventQueue;
 import com.hollingsworth.arsnouveau.api.event.ITimedEvent;
@@ -67,8 +69,7 @@ public class PassiveUnstableSummoningEvents {
                                 EventQueue.getServerInstance().addEvent(timer);
                             }
                             
-                            ArsAffinity.LOGGER.debug("Player {} triggered UNSTABLE_SUMMONING perk ({}%) - transformed summon into {}", 
-                                player.getName().getString(), (int)(chance * 100), randomEntityId);
+                            AffinityTrace.record(TraceEvent.UNSTABLE_SUMMON, player.getId(), livingEntity.getId(), chance);
                         }
                     } else {
                         ArsAffinity.LOGGER.warn("Invalid entity type for UNSTABLE_SUMMONING perk: {}", randomEntityId);
@@ -1,8 +1,7 @@
 package com.github.ars_affinity.event;
 
 import com.github.ars_affinity.ArsAffinity;
-import com.github.ars_affinity.common.network.Networking;
-import com.github.ars_affinity.common.network.ParticleEffectPacket;
+import com.github.ars_affinity.common.network.ParticleEffectBatcher;
 import com.github.ars_affinity.registry.ModSounds;
 import com.github.ars_affinity.util.SchoolColors;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
@@ -128,44 +127,14 @@ public class SchoolAffinityPointAllocatedEvents {
     }
 
     private static void spawnPointAllocatedParticles(Player player, SpellSchool school, int pointsGained) {
-        ArsAffinity.LOGGER.debug("=== SPAWNING POINT ALLOCATED PARTICLES ===");
-        ArsAffinity.LOGGER.debug("spawnPointAllocatedParticles called for player {} school {} points {}", 
-            player.getName().getString(), school.getId(), pointsGained);
-        ArsAffinity.LOGGER.debug("Player position: ({}, {}, {})", 
-            player.getX(), player.getY(), player.getZ());
-        ArsAffinity.LOGGER.debug("Player level: {}, isClientSide: {}", 
-            player.level().dimension().location(), player.level().isClientSide());
-            
         // Calculate particle count based on points gained (reduced count and speed)
         int particleCount = 3 + (pointsGained * 2); // 5, 7, 9 particles for 1, 2, 3 points (half of original)
         
-        ArsAffinity.LOGGER.debug("Calculated particle count: {} (base 5 + points {} * 3)", particleCount, pointsGained);
-        ArsAffinity.LOGGER.debug("Creating ParticleEffectPacket with playerId={}, schoolId={}, particleCount={}", 
-            player.getId(), school.getId().toString(), particleCount);
+        // Sent to nearby clients at the end of the tick, batched with any other effects they should see
+        ParticleEffectBatcher.queue(player, school, particleCount);
         
-        // Send particle effect packet to all clients
-        ParticleEffectPacket packet = new ParticleEffectPacket(
-            player.getId(),
-            school.getId().toString(),
-            particleCount
-        );
-        
-        ArsAffinity.LOGGER.debug("ParticleEffectPacket created successfully");
-        ArsAffinity.LOGGER.debug("Sending particle packet to nearby clients at position: {}", player.blockPosition());
-        
-        try {
-            Networking.sendToNearbyClient(player.level(), player.blockPosition(), packet);
-            ArsAffinity.LOGGER.debug("Particle packet sent successfully to nearby clients");
-            
-            // Schedule position updates every 3 ticks for 60 ticks (3 seconds)
-            ParticleUpdateScheduler.startPositionUpdates(player, school.getId().toString());
-        } catch (Exception e) {
-            ArsAffinity.LOGGER.error("Failed to send particle packet: {}", e.getMessage(), e);
-        }
-        
-        ArsAffinity.LOGGER.debug("Spawning {} spiral particles for {} point allocation (+{} points)", 
+        ArsAffinity.LOGGER.debug("Queued {} spiral particles for {} point allocation (+{} points)", 
             particleCount, school.getId(), pointsGained);
-        ArsAffinity.LOGGER.debug("=== PARTICLE SPAWNING COMPLETE ===");
     }
     
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.github.ars_affinity.event;
 
-import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
 import com.github.ars_affinity.perk.AffinityPerkType;
+import com.github.ars_affinity.util.trace.AffinityTrace;
+import com.github.ars_affinity.util.trace.TraceEvent;
 import com.hollingsworth.arsnouveau.api.event.EffectResolveEvent;
 import com.hollingsworth.arsnouveau.api.event.SpellCastEvent;
 import com.hollingsworth.arsnouveau.api.event.SpellResolveEvent;
@@ -40,8 +41,6 @@ public class SpellAmplificationEvents {
                 // Store the amplification amount for this player
                 float amount = AffinityPerkHelper.getPerkAmount(player, AffinityPerkType.PASSIVE_HEALING_AMPLIFICATION);
                 playerHealingAmplification.put(player.getUUID(), amount);
-                ArsAffinity.LOGGER.debug("Player {} cast healing spell with {}% amplification", 
-                    player.getName().getString(), (int)(amount * 100));
             }
         }
     }
@@ -71,9 +70,9 @@ public class SpellAmplificationEvents {
                 double currentAmp = event.spellStats.getAmpMultiplier();
                 double newAmp = currentAmp + amplification;
                 event.spellStats.setAmpMultiplier(newAmp);
-                
-                ArsAffinity.LOGGER.debug("Applied {}% healing amplification to EffectHeal for player {}", 
-                    (int)(amplification * 100), player.getName().getString());
+
+                int targetId = event.rayTraceResult instanceof EntityHitResult entityHit ? entityHit.getEntity().getId() : player.getId();
+                AffinityTrace.record(TraceEvent.HEALING_AMPLIFIED, player.getId(), targetId, amplification);
             }
         }
     }
@@ -96,7 +95,7 @@ public class SpellAmplificationEvents {
                     }
                 }
 
-                String healedName = targetPlayer != null ? targetPlayer.getName().getString() : player.getName().getString();
+                int healedId = targetPlayer != null ? targetPlayer.getId() : player.getId();
                 float reductionPercent = Math.min(1.0f, amplification);
                 float baseExhaustion = 2.5f;
                 float exhaustionToCompensate = baseExhaustion * reductionPercent;
@@ -114,13 +113,9 @@ public class SpellAmplificationEvents {
                     int foodToAdd = (int) Math.ceil(remainingExhaustion / 4.0f);
                     int newFood = Math.min(20, currentFood + foodToAdd);
                     foodData.setFoodLevel(newFood);
-
-                    ArsAffinity.LOGGER.debug("Healing Amplification compensated exhaustion for caster {} while healing {}: +{} food, +{} saturation ({}% reduction)",
-                        player.getName().getString(), healedName, foodToAdd, saturationToAdd, (int)(reductionPercent * 100));
-                } else {
-                    ArsAffinity.LOGGER.debug("Healing Amplification compensated exhaustion for caster {} while healing {}: +{} saturation ({}% reduction)",
-                        player.getName().getString(), healedName, saturationToAdd, (int)(reductionPercent * 100));
                 }
+
+                AffinityTrace.record(TraceEvent.HUNGER_COMPENSATED, player.getId(), healedId, reductionPercent);
             }
         }
     }
@@ -0,0 +1,116 @@
+package com.github.ars_affinity.event;
+
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.github.ars_affinity.util.GlyphBlacklistHelper;
+import com.hollingsworth.arsnouveau.api.spell.AbstractAugment;
+import com.hollingsworth.arsnouveau.api.spell.AbstractCastMethod;
+import com.hollingsworth.arsnouveau.api.spell.AbstractSpellPart;
+import com.hollingsworth.arsnouveau.api.spell.Spell;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the mana each spell contributes to each school, so repeated casts of the same spell only look up a
+ * vector instead of walking the recipe. Entries are computed after the glyph blacklist and the split of a
+ * glyph's cost across its schools; scaling is still applied by {@link AffinityProgressAccumulator} on flush.
+ * <p>
+ * Spells are immutable, so the spell itself keys its recipe. The cache is dropped whenever the blacklist is
+ * recompiled, on tag reloads, and periodically so changed glyph costs are picked up. Only used from the server thread.
+ */
+public class SpellContributionCache {
+
+    private static final int SCHOOL_COUNT = SchoolRelationshipHelper.ALL_SCHOOLS.length;
+    private static final int MAX_ENTRIES = 512;
+    // Glyph costs come from Ars Nouveau's own configs, whose reload events we can't observe
+    private static final int LIFETIME_TICKS = 1200;
+
+    private static final Map<Spell, Contribution> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Spell, Contribution> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static int blacklistGeneration = -1;
+    private static int ticksSinceClear;
+
+    /**
+     * Mana per school index for one cast of a spell, and how many of its segments were blacklisted.
+     */
+    public record Contribution(float[] manaBySchool, int blacklistedSegments) {
+    }
+
+    /**
+     * The contribution of a spell, computed on first use.
+     */
+    public static Contribution get(Spell spell) {
+        int generation = GlyphBlacklistHelper.getGeneration();
+        if (generation != blacklistGeneration) {
+            cache.clear();
+            blacklistGeneration = generation;
+        }
+
+        Contribution contribution = cache.get(spell);
+        if (contribution == null) {
+            contribution = compute(spell.recipe());
+            cache.put(spell, contribution);
+        }
+        return contribution;
+    }
+
+    public static void clear() {
+        cache.clear();
+        ticksSinceClear = 0;
+    }
+
+    public static int size() {
+        return cache.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (++ticksSinceClear >= LIFETIME_TICKS) {
+            clear();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        clear();
+    }
+
+    private static Contribution compute(Iterable<AbstractSpellPart> recipe) {
+        float[] mana = new float[SCHOOL_COUNT];
+        int blacklisted = 0;
+
+        // Each effect glyph starts a segment; augments and cast methods contribute nothing on their own
+        for (AbstractSpellPart glyph : recipe) {
+            if (glyph == null || glyph instanceof AbstractCastMethod || glyph instanceof AbstractAugment) {
+                continue;
+            }
+            if (GlyphBlacklistHelper.isGlyphBlacklisted(glyph)) {
+                blacklisted++;
+                continue;
+            }
+
+            List<SpellSchool> schools = glyph.spellSchools;
+            if (schools == null || schools.isEmpty()) {
+                continue;
+            }
+            float distributedCost = (float) glyph.getCastingCost() / schools.size();
+            for (SpellSchool school : schools) {
+                int index = SchoolRelationshipHelper.getSchoolIndex(school);
+                if (index >= 0) {
+                    mana[index] += distributedCost;
+                }
+            }
+        }
+        return new Contribution(mana, blacklisted);
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.ars_affinity.mixin;
+
+import com.github.ars_affinity.event.AffinityPersistenceEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.players.PlayerList;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Flushes changed affinity records at the start of every world save (autosave, /save-all, shutdown), before
+ * the player files and saved data they are written into.
+ */
+@Mixin(PlayerList.class)
+public abstract class PlayerListSaveMixin {
+
+    @Shadow
+    @Final
+    private MinecraftServer server;
+
+    @Inject(method = "saveAll", at = @At("HEAD"))
+    private void flushAffinityData(CallbackInfo ci) {
+        AffinityPersistenceEvents.flushBeforeSave(server);
+    }
+}
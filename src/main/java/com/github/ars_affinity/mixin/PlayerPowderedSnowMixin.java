@@ -1,9 +1,6 @@
 package com.github.ars_affinity.mixin;
 
-import com.github.ars_affinity.ArsAffinity;
-import com.github.ars_affinity.perk.AffinityPerk;
 import com.github.ars_affinity.perk.AffinityPerkHelper;
-import com.github.ars_affinity.perk.AffinityPerkType;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.block.PowderSnowBlock;
@@ -27,23 +24,15 @@ public class PlayerPowderedSnowMixin {
     )
     private void setTicksFrozen(int ticks, CallbackInfo ci) {
         Entity entity = (Entity) (Object) this;
-        
+
         if (!(entity instanceof Player player)) {
             return;
         }
 
         // Only prevent freezing if trying to accumulate frozen ticks
-        if (ticks > entity.getTicksFrozen()) {
-            var perk = AffinityPerkHelper.getAllocatedPerk(player, AffinityPerkType.PASSIVE_COLD_WALKER);
-            if (perk instanceof AffinityPerk.AmountBasedPerk amountPerk && amountPerk.amount > 0) {
-                // Keep current frozen ticks instead of increasing them
-                ci.cancel();
-                ArsAffinity.LOGGER.debug(
-                    "Player {} has COLD_WALKER perk - preventing frozen tick accumulation",
-                    player.getName().getString()
-                );
-                return;
-            }
+        if (ticks > entity.getTicksFrozen() && AffinityPerkHelper.getMovementProfile(player).preventsFreezing()) {
+            // Keep current frozen ticks instead of increasing them
+            ci.cancel();
         }
     }
 
@@ -58,23 +47,14 @@ public class PlayerPowderedSnowMixin {
     )
     private void onMakeStuckInBlock(BlockState state, Vec3 motionMultiplier, CallbackInfo ci) {
         Entity entity = (Entity) (Object) this;
-        
+
         if (!(entity instanceof Player player)) {
             return;
         }
 
-        if (state.getBlock() instanceof PowderSnowBlock) {
-            var perk = AffinityPerkHelper.getAllocatedPerk(player, AffinityPerkType.PASSIVE_COLD_WALKER);
-            if (perk instanceof AffinityPerk) {
-                // Cancel vanilla slowdown entirely
-                ci.cancel();
-                
-                ArsAffinity.LOGGER.debug(
-                    "Player {} has COLD_WALKER perk - no slowdown",
-                    player.getName().getString()
-                );
-                return;
-            }
+        if (state.getBlock() instanceof PowderSnowBlock && AffinityPerkHelper.getMovementProfile(player).hasColdWalker()) {
+            // Cancel vanilla slowdown entirely
+            ci.cancel();
         }
     }
 }
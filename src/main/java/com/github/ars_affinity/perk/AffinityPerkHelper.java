@@ -10,10 +10,8 @@ import java.util.Set;
 
 public class AffinityPerkHelper {
     
-    private static boolean hasActivePerk(PlayerAffinityData data, AffinityPerkType perkType) {
-        // Check if any allocated perk matches this type
-        return data.getAllAllocatedPerks().stream()
-            .anyMatch(allocation -> allocation.getPerkType() == perkType);
+    public static boolean hasActivePerk(PlayerAffinityData data, AffinityPerkType perkType) {
+        return data.hasPerk(perkType);
     }
 
     public static boolean hasActivePerk(Player player, AffinityPerkType perkType) {
@@ -25,15 +23,9 @@ public class AffinityPerkHelper {
     }
     
     public static AffinityPerk getAllocatedPerk(PlayerAffinityData data, AffinityPerkType perkType) {
-        // Find the highest tier allocated perk of this type
-        return data.getAllAllocatedPerks().stream()
-            .filter(allocation -> allocation.getPerkType() == perkType)
-            .max((a1, a2) -> Integer.compare(a1.getTier(), a2.getTier()))
-            .map(allocation -> {
-                // Get the loaded perk data from AffinityPerkManager instead of creating from node
-                return AffinityPerkManager.getHighestLevelPerk(allocation.getNode().getSchool(), perkType);
-            })
-            .orElse(null);
+        // Highest tier allocated perk of this type, resolved from the loaded perk data when allocations changed
+        ResolvedPerk resolved = data.getResolvedPerk(perkType);
+        return resolved != null ? resolved.getPerk() : null;
     }
 
     public static AffinityPerk getAllocatedPerk(Player player, AffinityPerkType perkType) {
@@ -44,33 +36,31 @@ public class AffinityPerkHelper {
         return null;
     }
     
+    /**
+     * Precomputed movement perk values for a player, {@link MovementPerkProfile#NONE} if they have no data.
+     */
+    public static MovementPerkProfile getMovementProfile(Player player) {
+        PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
+        return data != null ? data.getMovementProfile() : MovementPerkProfile.NONE;
+    }
+    
     public static PerkData getActivePerkData(PlayerAffinityData data, AffinityPerkType perkType) {
-        // Find the first allocated perk of this type
-        return data.getAllAllocatedPerks().stream()
-            .filter(allocation -> allocation.getPerkType() == perkType)
-            .findFirst()
-            .map(allocation -> {
-                PerkNode node = allocation.getNode();
-                AffinityPerk perk = createAffinityPerkFromNode(node);
-                return new PerkData(perk, allocation.getSchool(), allocation.getTier());
-            })
-            .orElse(null);
+        ResolvedPerk resolved = data.getResolvedPerk(perkType);
+        if (resolved == null) {
+            return null;
+        }
+        AffinityPerk perk = createAffinityPerkFromNode(resolved.getAllocation().getNode());
+        return new PerkData(perk, resolved.getSchool(), resolved.getTier());
     }
     
     public static SpellSchool getPerkSourceSchool(PlayerAffinityData data, AffinityPerkType perkType) {
-        return data.getAllAllocatedPerks().stream()
-            .filter(allocation -> allocation.getPerkType() == perkType)
-            .findFirst()
-            .map(allocation -> allocation.getSchool())
-            .orElse(null);
+        ResolvedPerk resolved = data.getResolvedPerk(perkType);
+        return resolved != null ? resolved.getSchool() : null;
     }
     
     public static int getPerkSourceTier(PlayerAffinityData data, AffinityPerkType perkType) {
-        return data.getAllAllocatedPerks().stream()
-            .filter(allocation -> allocation.getPerkType() == perkType)
-            .findFirst()
-            .map(allocation -> allocation.getTier())
-            .orElse(0);
+        ResolvedPerk resolved = data.getResolvedPerk(perkType);
+        return resolved != null ? resolved.getTier() : 0;
     }
     
     public static void applyActivePerk(PlayerAffinityData data, AffinityPerkType perkType, Consumer<AffinityPerk> perkConsumer) {
@@ -200,11 +190,7 @@ public class AffinityPerkHelper {
     public static int getPerkTier(Player player, AffinityPerkType perkType) {
         PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
         if (data != null) {
-            return data.getAllAllocatedPerks().stream()
-                .filter(allocation -> allocation.getPerkType() == perkType)
-                .mapToInt(PerkAllocation::getTier)
-                .max()
-                .orElse(0);
+            return getPerkSourceTier(data, perkType);
         }
         return 0;
     }
@@ -0,0 +1,347 @@
+package com.github.ars_affinity.perk;
+
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, indexed form of all loaded perk trees, built once per load by {@link PerkTreeManager}.
+ * <p>
+ * Nodes get dense integer ids grouped by school (in {@link SchoolRelationshipHelper#ALL_SCHOOLS} order), so
+ * a school is a contiguous id range. Prerequisites and dependents are stored as id arrays, the
+ * {@link AffinityPerk} for each node is parsed alongside it, and layout depth is precomputed.
+ * A new instance is published atomically on reload, so readers on any thread see a consistent tree.
+ */
+public final class CompiledPerkTree {
+
+    private static final int SCHOOL_COUNT = SchoolRelationshipHelper.ALL_SCHOOLS.length;
+    private static final int[] NO_IDS = new int[0];
+
+    public static final CompiledPerkTree EMPTY = compile(Map.of(), Map.of());
+
+    private final PerkNode[] nodes;
+    private final AffinityPerk[] perks;
+    private final Map<String, Integer> idsByName;
+    private final int[][] prerequisites;
+    private final int[][] dependents;
+    private final int[] depths;
+    private final int[] schoolStart;
+    private final int[] schoolEnd;
+    private final List<Map<String, PerkNode>> schoolNodes;
+    // Highest tier perk of each type per school, indexed [school][type ordinal]
+    private final AffinityPerk[][] highestPerks;
+    // File contents each school was parsed from, indexed by school
+    private final String[] sources;
+    private final String contentHash;
+    private final List<String> problems = new ArrayList<>();
+
+    /**
+     * A node as parsed from a perk tree file, with its perk data if that parsed.
+     */
+    public record ParsedPerk(PerkNode node, AffinityPerk perk) {
+    }
+
+    private CompiledPerkTree(PerkNode[] nodes, AffinityPerk[] perks, int[] schoolStart, int[] schoolEnd, String[] sources) {
+        this.nodes = nodes;
+        this.perks = perks;
+        this.schoolStart = schoolStart;
+        this.schoolEnd = schoolEnd;
+        this.sources = sources;
+        this.contentHash = hashSources(sources);
+
+        this.idsByName = new HashMap<>(nodes.length * 2);
+        for (int id = 0; id < nodes.length; id++) {
+            idsByName.put(nodes[id].getId(), id);
+        }
+
+        // Prerequisite ids, and whether any prerequisite is missing or in another school (those are laid out as roots)
+        this.prerequisites = new int[nodes.length][];
+        boolean[] detached = new boolean[nodes.length];
+        int[] dependentCounts = new int[nodes.length];
+        for (int id = 0; id < nodes.length; id++) {
+            List<String> names = nodes[id].getPrerequisites();
+            int[] resolved = new int[names.size()];
+            int count = 0;
+            for (String name : names) {
+                Integer prerequisite = idsByName.get(name);
+                if (prerequisite == null) {
+                    problems.add("Perk " + nodes[id].getId() + " has unknown prerequisite " + name);
+                    detached[id] = true;
+                    continue;
+                }
+                if (nodes[prerequisite].getSchool() != nodes[id].getSchool()) {
+                    detached[id] = true;
+                }
+                resolved[count++] = prerequisite;
+                dependentCounts[prerequisite]++;
+            }
+            prerequisites[id] = count == 0 ? NO_IDS : Arrays.copyOf(resolved, count);
+        }
+
+        this.dependents = new int[nodes.length][];
+        for (int id = 0; id < nodes.length; id++) {
+            dependents[id] = dependentCounts[id] == 0 ? NO_IDS : new int[dependentCounts[id]];
+            dependentCounts[id] = 0;
+        }
+        for (int id = 0; id < nodes.length; id++) {
+            for (int prerequisite : prerequisites[id]) {
+                dependents[prerequisite][dependentCounts[prerequisite]++] = id;
+            }
+        }
+
+        this.depths = computeDepths(detached);
+
+        for (int id = 0; id < nodes.length; id++) {
+            if (perks[id] == null) {
+                problems.add("Perk " + nodes[id].getId() + " has no valid perk data");
+            }
+        }
+
+        this.schoolNodes = new ArrayList<>(SCHOOL_COUNT);
+        this.highestPerks = new AffinityPerk[SCHOOL_COUNT][AffinityPerkType.values().length];
+        for (int school = 0; school < SCHOOL_COUNT; school++) {
+            Map<String, PerkNode> byName = new LinkedHashMap<>();
+            int[] highestTiers = new int[AffinityPerkType.values().length];
+            Arrays.fill(highestTiers, Integer.MIN_VALUE);
+            for (int id = schoolStart[school]; id < schoolEnd[school]; id++) {
+                byName.put(nodes[id].getId(), nodes[id]);
+                AffinityPerk perk = perks[id];
+                if (perk != null && nodes[id].getTier() > highestTiers[perk.perk.ordinal()]) {
+                    highestTiers[perk.perk.ordinal()] = nodes[id].getTier();
+                    highestPerks[school][perk.perk.ordinal()] = perk;
+                }
+            }
+            schoolNodes.add(Collections.unmodifiableMap(byName));
+        }
+    }
+
+    /**
+     * Builds the tree from parsed nodes per school, keeping file order within a school.
+     *
+     * @param sources The file contents each school was parsed from
+     */
+    public static CompiledPerkTree compile(Map<SpellSchool, List<ParsedPerk>> parsed, Map<SpellSchool, String> sources) {
+        List<PerkNode> nodes = new ArrayList<>();
+        List<AffinityPerk> perks = new ArrayList<>();
+        Map<String, PerkNode> seen = new HashMap<>();
+        int[] schoolStart = new int[SCHOOL_COUNT];
+        int[] schoolEnd = new int[SCHOOL_COUNT];
+        String[] schoolSources = new String[SCHOOL_COUNT];
+        List<String> duplicates = new ArrayList<>();
+
+        for (int school = 0; school < SCHOOL_COUNT; school++) {
+            schoolSources[school] = sources.get(SchoolRelationshipHelper.ALL_SCHOOLS[school]);
+            schoolStart[school] = nodes.size();
+            for (ParsedPerk entry : parsed.getOrDefault(SchoolRelationshipHelper.ALL_SCHOOLS[school], List.of())) {
+                if (seen.putIfAbsent(entry.node().getId(), entry.node()) != null) {
+                    duplicates.add("Duplicate perk id " + entry.node().getId() + ", keeping the first");
+                    continue;
+                }
+                nodes.add(entry.node());
+                perks.add(entry.perk());
+            }
+            schoolEnd[school] = nodes.size();
+        }
+
+        CompiledPerkTree tree = new CompiledPerkTree(nodes.toArray(new PerkNode[0]), perks.toArray(new AffinityPerk[0]), schoolStart, schoolEnd, schoolSources);
+        tree.problems.addAll(0, duplicates);
+        return tree;
+    }
+
+    private static String hashSources(String[] sources) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (int school = 0; school < sources.length; school++) {
+            if (sources[school] == null) {
+                continue;
+            }
+            byte[] bytes = sources[school].getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) school);
+            digest.update(new byte[] {(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8), (byte) bytes.length});
+            digest.update(bytes);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private int[] computeDepths(boolean[] detached) {
+        int[] result = new int[nodes.length];
+        Arrays.fill(result, -1);
+        for (int id = 0; id < nodes.length; id++) {
+            if (prerequisites[id].length == 0 && !detached[id]) {
+                result[id] = 0;
+            }
+        }
+
+        // Repeatedly place nodes whose prerequisites are all placed; fine for trees of a few dozen nodes
+        boolean progressMade = true;
+        while (progressMade) {
+            progressMade = false;
+            for (int id = 0; id < nodes.length; id++) {
+                if (result[id] >= 0 || detached[id]) {
+                    continue;
+                }
+                int maxPrerequisiteDepth = -1;
+                boolean ready = true;
+                for (int prerequisite : prerequisites[id]) {
+                    if (result[prerequisite] < 0) {
+                        ready = false;
+                        break;
+                    }
+                    maxPrerequisiteDepth = Math.max(maxPrerequisiteDepth, result[prerequisite]);
+                }
+                if (ready) {
+                    result[id] = maxPrerequisiteDepth + 1;
+                    progressMade = true;
+                }
+            }
+        }
+
+        // Cycles and detached nodes go in the first column
+        for (int id = 0; id < nodes.length; id++) {
+            if (result[id] < 0) {
+                if (!detached[id]) {
+                    problems.add("Perk " + nodes[id].getId() + " is part of or depends on a prerequisite cycle");
+                }
+                result[id] = 0;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Unknown prerequisites, prerequisite cycles and nodes without valid perk data found while compiling.
+     */
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    /**
+     * The file contents a school was parsed from, or null if it had no file.
+     */
+    public String getSource(int schoolIndex) {
+        return sources[schoolIndex];
+    }
+
+    /**
+     * SHA-256 of the file contents of every school, as lowercase hex. Equal trees have equal hashes.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Id of the node with this name, or -1.
+     */
+    public int indexOf(String nodeId) {
+        Integer id = idsByName.get(nodeId);
+        return id != null ? id : -1;
+    }
+
+    public PerkNode getNode(int id) {
+        return nodes[id];
+    }
+
+    public PerkNode getNode(String nodeId) {
+        Integer id = idsByName.get(nodeId);
+        return id != null ? nodes[id] : null;
+    }
+
+    /**
+     * Perk data parsed for the node, or null if it failed to parse.
+     */
+    public AffinityPerk getPerk(int id) {
+        return perks[id];
+    }
+
+    /**
+     * Ids of the node's prerequisites. Do not modify.
+     */
+    public int[] getPrerequisites(int id) {
+        return prerequisites[id];
+    }
+
+    /**
+     * Ids of the nodes that list this node as a prerequisite. Do not modify.
+     */
+    public int[] getDependents(int id) {
+        return dependents[id];
+    }
+
+    /**
+     * Column of the node in the perk tree screen: 0 for roots, otherwise one more than its deepest prerequisite.
+     */
+    public int getDepth(int id) {
+        return depths[id];
+    }
+
+    /**
+     * First node id of a school, by {@link SchoolRelationshipHelper} index.
+     */
+    public int getSchoolStart(int schoolIndex) {
+        return schoolStart[schoolIndex];
+    }
+
+    /**
+     * One past the last node id of a school, by {@link SchoolRelationshipHelper} index.
+     */
+    public int getSchoolEnd(int schoolIndex) {
+        return schoolEnd[schoolIndex];
+    }
+
+    /**
+     * The school's nodes by name, in file order. Unmodifiable.
+     */
+    public Map<String, PerkNode> getSchoolNodes(SpellSchool school) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? schoolNodes.get(index) : Map.of();
+    }
+
+    public int getSchoolSize(SpellSchool school) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? schoolEnd[index] - schoolStart[index] : 0;
+    }
+
+    /**
+     * The highest tier perk of a type in a school, or null.
+     */
+    public AffinityPerk getHighestPerk(SpellSchool school, AffinityPerkType type) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        return index >= 0 ? highestPerks[index][type.ordinal()] : null;
+    }
+
+    /**
+     * The first perk of a type at a given tier in a school, or null.
+     */
+    public AffinityPerk getPerk(SpellSchool school, int tier, AffinityPerkType type) {
+        int index = SchoolRelationshipHelper.getSchoolIndex(school);
+        if (index < 0) {
+            return null;
+        }
+        for (int id = schoolStart[index]; id < schoolEnd[index]; id++) {
+            AffinityPerk perk = perks[id];
+            if (perk != null && perk.perk == type && nodes[id].getTier() == tier) {
+                return perk;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.ars_affinity.perk;
+
+/**
+ * Movement perk values a player has allocated, precomputed for the movement mixins that run every tick.
+ * Rebuilt together with the perk index whenever allocations change or sync to the client, so a player
+ * without movement perks is rejected with a single field read.
+ */
+public final class MovementPerkProfile {
+
+    public static final MovementPerkProfile NONE = new MovementPerkProfile(false, false, 0.0f);
+
+    private final boolean coldWalker;
+    private final boolean coldWalkerAmountBased;
+    private final float coldWalkerAmount;
+    private final float iceFriction;
+
+    private MovementPerkProfile(boolean coldWalker, boolean coldWalkerAmountBased, float coldWalkerAmount) {
+        this.coldWalker = coldWalker;
+        this.coldWalkerAmountBased = coldWalkerAmountBased;
+        this.coldWalkerAmount = coldWalkerAmount;
+        // 0.0 amount = 0.6 (normal ground), 1.0 amount = 0.0 (maximum speed)
+        this.iceFriction = 0.6F - (coldWalkerAmount * 0.6F);
+    }
+
+    /**
+     * Builds the profile from a resolved Cold Walker perk, or returns {@link #NONE} if there is none.
+     */
+    public static MovementPerkProfile from(ResolvedPerk coldWalkerPerk) {
+        if (coldWalkerPerk == null || coldWalkerPerk.getPerk() == null) {
+            return NONE;
+        }
+        if (coldWalkerPerk.getPerk() instanceof AffinityPerk.AmountBasedPerk amountPerk) {
+            return new MovementPerkProfile(true, true, amountPerk.amount);
+        }
+        return new MovementPerkProfile(true, false, 0.0f);
+    }
+
+    /**
+     * Whether a Cold Walker perk is allocated at all; cancels powder snow slowdown.
+     */
+    public boolean hasColdWalker() {
+        return coldWalker;
+    }
+
+    /**
+     * Whether ground friction on cold blocks is replaced by {@link #getIceFriction()}.
+     */
+    public boolean overridesIceFriction() {
+        return coldWalkerAmountBased;
+    }
+
+    /**
+     * Whether frozen ticks should stop accumulating.
+     */
+    public boolean preventsFreezing() {
+        return coldWalkerAmountBased && coldWalkerAmount > 0;
+    }
+
+    public float getColdWalkerAmount() {
+        return coldWalkerAmount;
+    }
+
+    public float getIceFriction() {
+        return iceFriction;
+    }
+}
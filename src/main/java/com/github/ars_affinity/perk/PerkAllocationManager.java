@@ -1,6 +1,7 @@
 package com.github.ars_affinity.perk;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.AffinityLeaderboards;
 import com.github.ars_affinity.capability.PlayerAffinityData;
 import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
@@ -98,6 +99,7 @@ public class PerkAllocationManager {
                 player.getName().getString(), points, perkId);
             PlayerAffinityDataHelper.savePlayerData(player);
             PlayerAffinityDataProvider.syncToClient(player);
+            AffinityLeaderboards.updatePlayer(player);
         }
         
         return success;
@@ -139,6 +141,7 @@ public class PerkAllocationManager {
                 player.getName().getString(), perkId);
             PlayerAffinityDataHelper.savePlayerData(player);
             PlayerAffinityDataProvider.syncToClient(player);
+            AffinityLeaderboards.updatePlayer(player);
         }
         
         return success;
@@ -189,13 +192,12 @@ public class PerkAllocationManager {
      * @return true if other perks depend on this one
      */
     private static boolean hasDependentPerks(PlayerAffinityData data, String perkId) {
-        // Get all perks for the same school
-        PerkNode targetNode = PerkTreeManager.getNode(perkId);
-        if (targetNode == null) return false;
+        CompiledPerkTree tree = PerkTreeManager.getTree();
+        int id = tree.indexOf(perkId);
+        if (id < 0) return false;
         
-        SpellSchool school = targetNode.getSchool();
-        for (PerkNode node : PerkTreeManager.getSchoolNodes(school).values()) {
-            if (node.getPrerequisites().contains(perkId) && data.isPerkAllocated(node.getId())) {
+        for (int dependent : tree.getDependents(id)) {
+            if (data.isPerkAllocated(tree.getNode(dependent).getId())) {
                 return true;
             }
         }
@@ -221,6 +223,7 @@ public class PerkAllocationManager {
             data.deallocatePerk(perkId);
         }
         
+        AffinityLeaderboards.updatePlayer(player);
         ArsAffinity.LOGGER.debug("Player {} reset all perks for school {}", 
             player.getName().getString(), school.getId());
         
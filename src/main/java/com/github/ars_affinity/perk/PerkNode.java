@@ -41,7 +41,7 @@ public class PerkNode {
         this.school = school;
         this.tier = tier;
         this.pointCost = pointCost;
-        this.prerequisites = prerequisites != null ? new ArrayList<>(prerequisites) : new ArrayList<>();
+        this.prerequisites = prerequisites != null ? List.copyOf(prerequisites) : List.of();
         this.prerequisiteGlyph = prerequisiteGlyph;
         this.category = category;
         this.amount = amount;
@@ -63,7 +63,7 @@ public class PerkNode {
     public SpellSchool getSchool() { return school; }
     public int getTier() { return tier; }
     public int getPointCost() { return pointCost; }
-    public List<String> getPrerequisites() { return new ArrayList<>(prerequisites); }
+    public List<String> getPrerequisites() { return prerequisites; }
     public String getPrerequisiteGlyph() { return prerequisiteGlyph; }
     public PerkCategory getCategory() { return category; }
     
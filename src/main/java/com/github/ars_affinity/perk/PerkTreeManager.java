@@ -7,6 +7,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchools;
@@ -17,13 +18,15 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Loads the per-school perk tree files and publishes them as a {@link CompiledPerkTree}.
+ * Each file is parsed once into both {@link PerkNode}s and their {@link AffinityPerk} data.
+ */
 public class PerkTreeManager {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Map<SpellSchool, Map<String, PerkNode>> perkTrees = new HashMap<>();
-    private static final Map<String, PerkNode> allNodes = new HashMap<>();
-    private static boolean isLoaded = false;
+    // Replaced as a whole on load, null until the first load
+    private static volatile CompiledPerkTree tree;
     
     private static final SpellSchool[] SUPPORTED_SCHOOLS = {
         SpellSchools.ELEMENTAL_FIRE,
@@ -36,49 +39,21 @@ public class PerkTreeManager {
         SpellSchools.MANIPULATION
     };
     
-    public static void loadPerkTrees() {
-        perkTrees.clear();
-        allNodes.clear();
-        
-        Path configDir = FMLPaths.CONFIGDIR.get().resolve("ars_affinity").resolve("perk_trees");
-        ArsAffinity.LOGGER.debug("Loading perk trees from: {}", configDir.toAbsolutePath());
-        
+    public static synchronized void loadPerkTrees() {
         try {
-            if (!Files.exists(configDir)) {
-                Files.createDirectories(configDir);
-                ArsAffinity.LOGGER.warn("Perk trees directory does not exist, created: {}", configDir);
+            Map<SpellSchool, String> sources = readSources();
+            List<String> errors = new ArrayList<>();
+            CompiledPerkTree compiled = compile(sources, errors);
+            if (!errors.isEmpty()) {
+                throw new IllegalStateException(String.join("; ", errors));
             }
-            
-            for (SpellSchool school : SUPPORTED_SCHOOLS) {
-                String schoolName = getSchoolName(school);
-                Path schoolFile = configDir.resolve(schoolName + ".json");
-                
-                // First try to load from config directory
-                if (Files.exists(schoolFile)) {
-                    ArsAffinity.LOGGER.debug("Loading perk tree for school: {} from config", schoolName);
-                    loadSchoolPerkTree(school, schoolFile);
-                } else {
-                    // Try to copy from JAR resources
-                    try {
-                        String resourcePath = "data/ars_affinity/config/perk_trees/" + schoolName + ".json";
-                        var resourceStream = PerkTreeManager.class.getClassLoader().getResourceAsStream(resourcePath);
-                        if (resourceStream != null) {
-                            ArsAffinity.LOGGER.debug("Copying perk tree for school: {} from JAR resources", schoolName);
-                            Files.createDirectories(schoolFile.getParent());
-                            Files.copy(resourceStream, schoolFile);
-                            loadSchoolPerkTree(school, schoolFile);
-                        } else {
-                            ArsAffinity.LOGGER.warn("No perk tree file found for school: {}", schoolName);
-                        }
-                    } catch (IOException e) {
-                        ArsAffinity.LOGGER.error("Failed to copy perk tree file for school {}: {}", schoolName, e.getMessage());
-                    }
-                }
+            for (String problem : compiled.getProblems()) {
+                ArsAffinity.LOGGER.warn("Perk tree problem: {}", problem);
             }
             
-            isLoaded = true;
+            publish(compiled);
             ArsAffinity.LOGGER.debug("Loaded perk trees for {} schools with {} total nodes", 
-                perkTrees.size(), allNodes.size());
+                sources.size(), compiled.size());
             
         } catch (Exception e) {
             ArsAffinity.LOGGER.error("Error loading perk trees: {}", e.getMessage(), e);
@@ -86,24 +61,108 @@ public class PerkTreeManager {
         }
     }
     
-    private static void loadSchoolPerkTree(SpellSchool school, Path schoolFile) throws IOException {
-        String content = Files.readString(schoolFile, StandardCharsets.UTF_8);
-        JsonObject schoolData = JsonParser.parseString(content).getAsJsonObject();
+    public static Path getConfigDir() {
+        return FMLPaths.CONFIGDIR.get().resolve("ars_affinity").resolve("perk_trees");
+    }
+    
+    /**
+     * Read every school's perk tree file from the config directory, copying missing ones from the JAR first.
+     * 
+     * @return File contents per school; schools without a file are absent
+     */
+    public static Map<SpellSchool, String> readSources() throws IOException {
+        Map<SpellSchool, String> sources = new HashMap<>();
         
-        Map<String, PerkNode> schoolNodes = new HashMap<>();
+        Path configDir = getConfigDir();
+        ArsAffinity.LOGGER.debug("Loading perk trees from: {}", configDir.toAbsolutePath());
+        
+        if (!Files.exists(configDir)) {
+            Files.createDirectories(configDir);
+            ArsAffinity.LOGGER.warn("Perk trees directory does not exist, created: {}", configDir);
+        }
+        
+        for (SpellSchool school : SUPPORTED_SCHOOLS) {
+            String schoolName = getSchoolName(school);
+            Path schoolFile = configDir.resolve(schoolName + ".json");
+            
+            // First try to load from config directory
+            if (Files.exists(schoolFile)) {
+                ArsAffinity.LOGGER.debug("Loading perk tree for school: {} from config", schoolName);
+                sources.put(school, Files.readString(schoolFile, StandardCharsets.UTF_8));
+            } else {
+                // Try to copy from JAR resources
+                try {
+                    String resourcePath = "data/ars_affinity/config/perk_trees/" + schoolName + ".json";
+                    var resourceStream = PerkTreeManager.class.getClassLoader().getResourceAsStream(resourcePath);
+                    if (resourceStream != null) {
+                        ArsAffinity.LOGGER.debug("Copying perk tree for school: {} from JAR resources", schoolName);
+                        Files.createDirectories(schoolFile.getParent());
+                        try (resourceStream) {
+                            Files.copy(resourceStream, schoolFile);
+                        }
+                        sources.put(school, Files.readString(schoolFile, StandardCharsets.UTF_8));
+                    } else {
+                        ArsAffinity.LOGGER.warn("No perk tree file found for school: {}", schoolName);
+                    }
+                } catch (IOException e) {
+                    ArsAffinity.LOGGER.error("Failed to copy perk tree file for school {}: {}", schoolName, e.getMessage());
+                }
+            }
+        }
+        
+        return sources;
+    }
+    
+    /**
+     * Parse and compile perk tree files without publishing them.
+     * 
+     * @param sources File contents per school
+     * @param errors Receives files and nodes that could not be parsed; those are left out of the tree
+     */
+    public static CompiledPerkTree compile(Map<SpellSchool, String> sources, List<String> errors) {
+        Map<SpellSchool, List<CompiledPerkTree.ParsedPerk>> parsed = new HashMap<>();
+        for (Map.Entry<SpellSchool, String> entry : sources.entrySet()) {
+            parsed.put(entry.getKey(), parseSchoolPerkTree(entry.getKey(), entry.getValue(), errors));
+        }
+        return CompiledPerkTree.compile(parsed, sources);
+    }
+    
+    /**
+     * Make a compiled tree the current one. Readers switch over atomically.
+     */
+    public static void publish(CompiledPerkTree compiled) {
+        tree = compiled;
+    }
+    
+    private static List<CompiledPerkTree.ParsedPerk> parseSchoolPerkTree(SpellSchool school, String content, List<String> errors) {
+        String schoolName = getSchoolName(school);
+        List<CompiledPerkTree.ParsedPerk> schoolNodes = new ArrayList<>();
+        
+        JsonObject schoolData;
+        try {
+            schoolData = JsonParser.parseString(content).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            errors.add("JSON parsing error in perk file " + schoolName + ".json: " + e.getMessage());
+            return schoolNodes;
+        }
         
         // Load all perks from the simplified structure
         if (schoolData.has("perks")) {
             JsonArray perksArray = schoolData.getAsJsonArray("perks");
             for (JsonElement nodeElement : perksArray) {
-                PerkNode node = parsePerkNode(nodeElement.getAsJsonObject(), school);
-                schoolNodes.put(node.getId(), node);
-                allNodes.put(node.getId(), node);
+                try {
+                    JsonObject nodeData = nodeElement.getAsJsonObject();
+                    PerkNode node = parsePerkNode(nodeData, school);
+                    schoolNodes.add(new CompiledPerkTree.ParsedPerk(node, AffinityPerkManager.parsePerk(nodeData)));
+                } catch (RuntimeException e) {
+                    // Missing fields, unknown perk types or categories
+                    errors.add("Invalid perk in " + schoolName + ".json: " + nodeElement + " - " + e.getMessage());
+                }
             }
         }
         
-        perkTrees.put(school, schoolNodes);
         ArsAffinity.LOGGER.debug("Loaded {} nodes for school {}", schoolNodes.size(), school.getId());
+        return schoolNodes;
     }
     
     private static PerkNode parsePerkNode(JsonObject nodeData, SpellSchool school) {
@@ -141,35 +200,51 @@ public class PerkTreeManager {
                            freezeTime, radius, dashLength, dashDuration, health, hunger);
     }
     
-    public static PerkNode getNode(String nodeId) {
-        if (!isLoaded) {
+    /**
+     * The current compiled tree, loading it on first use.
+     */
+    public static CompiledPerkTree getTree() {
+        CompiledPerkTree current = tree;
+        if (current == null) {
             loadPerkTrees();
+            current = tree;
         }
-        return allNodes.get(nodeId);
+        return current != null ? current : CompiledPerkTree.EMPTY;
+    }
+    
+    public static PerkNode getNode(String nodeId) {
+        return getTree().getNode(nodeId);
     }
     
+    /**
+     * The school's nodes by id. Unmodifiable.
+     */
     public static Map<String, PerkNode> getSchoolNodes(SpellSchool school) {
-        if (!isLoaded) {
-            loadPerkTrees();
-        }
-        return perkTrees.getOrDefault(school, new HashMap<>());
+        return getTree().getSchoolNodes(school);
     }
     
     public static List<PerkNode> getRootNodes(SpellSchool school) {
-        Map<String, PerkNode> schoolNodes = getSchoolNodes(school);
-        return schoolNodes.values().stream()
-            .filter(PerkNode::isRootNode)
-            .collect(Collectors.toList());
+        List<PerkNode> roots = new ArrayList<>();
+        for (PerkNode node : getSchoolNodes(school).values()) {
+            if (node.isRootNode()) {
+                roots.add(node);
+            }
+        }
+        return roots;
     }
     
     public static List<PerkNode> getChildNodes(String parentNodeId) {
-        if (!isLoaded) {
-            loadPerkTrees();
+        CompiledPerkTree current = getTree();
+        int parent = current.indexOf(parentNodeId);
+        if (parent < 0) {
+            return List.of();
         }
         
-        return allNodes.values().stream()
-            .filter(node -> node.getPrerequisites().contains(parentNodeId))
-            .collect(Collectors.toList());
+        List<PerkNode> children = new ArrayList<>();
+        for (int child : current.getDependents(parent)) {
+            children.add(current.getNode(child));
+        }
+        return children;
     }
     
     public static int calculatePointCost(SpellSchool school, int currentPoints) {
@@ -192,8 +267,7 @@ public class PerkTreeManager {
     }
     
     public static int getTotalPerksForSchool(SpellSchool school) {
-        Map<String, PerkNode> schoolNodes = getSchoolNodes(school);
-        return schoolNodes.size();
+        return getTree().getSchoolSize(school);
     }
     
     public static int getMaxPointsForSchool(SpellSchool school) {
@@ -281,7 +355,7 @@ public class PerkTreeManager {
         Files.writeString(fireFile, GSON.toJson(fireTree), StandardCharsets.UTF_8);
     }
     
-    private static String getSchoolName(SpellSchool school) {
+    public static String getSchoolName(SpellSchool school) {
         String schoolId = school.getId().toString();
         return switch (schoolId) {
             case "ars_nouveau:elemental_fire" -> "fire";
@@ -0,0 +1,225 @@
+package com.github.ars_affinity.perk;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.AffinityLeaderboards;
+import com.github.ars_affinity.capability.PlayerAffinityData;
+import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
+import com.github.ars_affinity.capability.PlayerAffinityDataProvider;
+import com.github.ars_affinity.common.network.Networking;
+import com.github.ars_affinity.common.network.PerkTreeUpdatePacket;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the perk tree files while the server is running, from {@code /ars-affinity reload} or when a file in
+ * the perk tree directory changes.
+ * <p>
+ * Files are read and compiled on a background thread. A tree with unparseable files, unknown prerequisites,
+ * cycles or invalid perk data is rejected and the current one stays in place. Otherwise the new tree is
+ * published on the server thread, connected clients receive the files of the schools that changed, every
+ * online player's allocations are remapped onto the new nodes by id, and the leaderboards recount tiers and
+ * allocations against the new tree.
+ */
+public class PerkTreeReloader {
+
+    // Editors often write a file in several steps, wait for them to settle
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Ars Affinity Perk Tree Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static WatchService watchService;
+    private static Thread watchThread;
+
+    /**
+     * Outcome of a reload.
+     *
+     * @param applied Whether a new tree was published
+     * @param problems Why the reload was rejected, empty otherwise
+     */
+    public record ReloadResult(boolean applied, List<String> problems, int changedSchools, int playersRemapped, int allocationsDropped) {
+    }
+
+    private record Compiled(CompiledPerkTree tree, List<String> problems) {
+    }
+
+    /**
+     * Re-read the perk tree files and apply them if they are valid and changed.
+     * Completes on the server thread.
+     */
+    public static CompletableFuture<ReloadResult> reload(MinecraftServer server) {
+        return CompletableFuture.supplyAsync(PerkTreeReloader::compile, EXECUTOR)
+            .thenApplyAsync(compiled -> apply(server, compiled), server);
+    }
+
+    private static Compiled compile() {
+        Map<SpellSchool, String> sources;
+        try {
+            sources = PerkTreeManager.readSources();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<String> problems = new ArrayList<>();
+        CompiledPerkTree tree = PerkTreeManager.compile(sources, problems);
+        problems.addAll(tree.getProblems());
+        return new Compiled(tree, problems);
+    }
+
+    private static ReloadResult apply(MinecraftServer server, Compiled compiled) {
+        if (!compiled.problems().isEmpty()) {
+            for (String problem : compiled.problems()) {
+                ArsAffinity.LOGGER.warn("Perk tree problem: {}", problem);
+            }
+            ArsAffinity.LOGGER.warn("Rejected perk tree reload, keeping the current trees");
+            return new ReloadResult(false, compiled.problems(), 0, 0, 0);
+        }
+
+        CompiledPerkTree current = PerkTreeManager.getTree();
+        CompiledPerkTree tree = compiled.tree();
+        List<SpellSchool> changed = new ArrayList<>();
+        for (int i = 0; i < SchoolRelationshipHelper.ALL_SCHOOLS.length; i++) {
+            if (!Objects.equals(current.getSource(i), tree.getSource(i))) {
+                changed.add(SchoolRelationshipHelper.ALL_SCHOOLS[i]);
+            }
+        }
+        if (changed.isEmpty()) {
+            return new ReloadResult(true, List.of(), 0, 0, 0);
+        }
+
+        PerkTreeManager.publish(tree);
+
+        // Clients need the new nodes before the sync that refers to them
+        PerkTreeUpdatePacket update = new PerkTreeUpdatePacket(tree, changed);
+        int players = 0;
+        int dropped = 0;
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            Networking.sendToPlayerClient(update, player);
+            PlayerAffinityData data = PlayerAffinityDataHelper.getPlayerAffinityData(player);
+            if (data != null) {
+                dropped += data.remapAllocations(tree);
+                PlayerAffinityDataProvider.requestSave(player);
+                PlayerAffinityDataProvider.syncFullToClient(player);
+                AffinityLeaderboards.updatePlayer(player);
+                players++;
+            }
+        }
+        // Offline players keep their ids until they log in, but their tiers may have moved
+        AffinityLeaderboards.get(server).reindexPerks();
+
+        ArsAffinity.LOGGER.info("Reloaded perk trees: {} schools changed, {} nodes, {} players remapped, {} allocations dropped",
+            changed.size(), tree.size(), players, dropped);
+        return new ReloadResult(true, List.of(), changed.size(), players, dropped);
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (ArsAffinityConfig.WATCH_PERK_TREES.get()) {
+            startWatching(event.getServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        stopWatching();
+    }
+
+    private static synchronized void startWatching(MinecraftServer server) {
+        stopWatching();
+        Path directory = PerkTreeManager.getConfigDir();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.error("Failed to watch perk tree directory {}: {}", directory, e.getMessage());
+            stopWatching();
+            return;
+        }
+
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watch(service, server), "Ars Affinity Perk Tree Watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        ArsAffinity.LOGGER.debug("Watching {} for perk tree changes", directory);
+    }
+
+    private static synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                ArsAffinity.LOGGER.warn("Failed to close perk tree watcher: {}", e.getMessage());
+            }
+            watchService = null;
+        }
+        watchThread = null;
+    }
+
+    private static void watch(WatchService service, MinecraftServer server) {
+        try {
+            while (true) {
+                boolean relevant = drain(service.take());
+                if (!relevant) {
+                    continue;
+                }
+                WatchKey next;
+                while ((next = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+
+                reload(server).whenComplete((result, error) -> {
+                    if (error != null) {
+                        ArsAffinity.LOGGER.error("Failed to reload perk trees: {}", error.getMessage(), error);
+                    } else if (result.applied() && result.changedSchools() == 0) {
+                        ArsAffinity.LOGGER.debug("Perk tree files changed but their contents did not");
+                    }
+                });
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Server stopping
+        }
+    }
+
+    /**
+     * Reset a key and report whether any of its events touched a perk tree file.
+     */
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                || (event.context() instanceof Path path && path.toString().endsWith(".json"))) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
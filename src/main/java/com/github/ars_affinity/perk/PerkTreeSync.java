@@ -0,0 +1,290 @@
+package com.github.ars_affinity.perk;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.school.SchoolRelationshipHelper;
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves the server's perk trees to clients. The server announces {@link CompiledPerkTree#getContentHash()} at
+ * login; a client that doesn't have that tree looks for it in its on-disk cache and only asks for the
+ * gzipped tree files when the cache misses. Trees received from a server replace the client's own until it
+ * leaves that server.
+ */
+public final class PerkTreeSync {
+
+    public static final int MAX_PAYLOAD_BYTES = 1 << 20;
+    private static final int MAX_SOURCE_BYTES = 1 << 18;
+    private static final int MAX_CACHED_TREES = 16;
+    private static final String CACHE_SUFFIX = ".bin";
+    // The hash comes from the server and becomes a file name
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    // Server side: payload of the last tree sent, trees only change on reload
+    private static CompiledPerkTree payloadTree;
+    private static byte[] payload;
+
+    // Client side: whether the published tree came from a server
+    private static volatile boolean remoteTree;
+    // Client side: hash announced for the tree requested from the server, null when none is pending
+    private static volatile String requestedHash;
+
+    private PerkTreeSync() {
+    }
+
+    /**
+     * The compressed tree files of a tree, encoded once per tree.
+     */
+    public static synchronized byte[] getPayload(CompiledPerkTree tree) {
+        if (payloadTree != tree) {
+            payload = encode(tree);
+            payloadTree = tree;
+        }
+        return payload;
+    }
+
+    private static byte[] encode(CompiledPerkTree tree) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            List<Integer> schools = new ArrayList<>();
+            for (int i = 0; i < SchoolRelationshipHelper.ALL_SCHOOLS.length; i++) {
+                if (tree.getSource(i) != null) {
+                    schools.add(i);
+                }
+            }
+            out.writeByte(schools.size());
+            for (int school : schools) {
+                byte[] source = tree.getSource(school).getBytes(StandardCharsets.UTF_8);
+                out.writeByte(school);
+                out.writeInt(source.length);
+                out.write(source);
+            }
+        } catch (IOException e) {
+            // Only writing to memory
+            throw new IllegalStateException("Failed to encode perk trees", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The tree files in a payload, by school.
+     */
+    public static Map<SpellSchool, String> decode(byte[] data) throws IOException {
+        Map<SpellSchool, String> sources = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int count = in.readUnsignedByte();
+            if (count > SchoolRelationshipHelper.ALL_SCHOOLS.length) {
+                throw new IOException("Too many perk tree files: " + count);
+            }
+            for (int i = 0; i < count; i++) {
+                SpellSchool school = SchoolRelationshipHelper.getSchoolByIndex(in.readUnsignedByte());
+                int length = in.readInt();
+                if (length < 0 || length > MAX_SOURCE_BYTES) {
+                    throw new IOException("Perk tree file too large: " + length + " bytes");
+                }
+                byte[] source = in.readNBytes(length);
+                if (source.length != length) {
+                    throw new IOException("Truncated perk tree payload");
+                }
+                if (school != null) {
+                    sources.put(school, new String(source, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Compile tree files merged from a server update and publish them if they match the hash sent with it.
+     *
+     * @return The published tree, or null if the merge doesn't match the server's tree
+     */
+    public static CompiledPerkTree applyUpdate(Map<SpellSchool, String> sources, String hash) {
+        CompiledPerkTree tree = compileRemote(sources);
+        if (!tree.getContentHash().equals(hash)) {
+            ArsAffinity.LOGGER.warn("Perk tree update produced {}, server has {}", tree.getContentHash(), hash);
+            return null;
+        }
+        PerkTreeManager.publish(tree);
+        remoteTree = true;
+        return tree;
+    }
+
+    /**
+     * Whether the published tree is one received from the server, so server updates can be merged into it.
+     */
+    public static boolean hasRemoteTree() {
+        return remoteTree;
+    }
+
+    /**
+     * Whether the client is still waiting for tree files it asked the server for.
+     */
+    public static boolean isRequestPending() {
+        return requestedHash != null;
+    }
+
+    /**
+     * Remember the hash the server announced before asking it for its tree files.
+     */
+    public static void expect(String hash) {
+        requestedHash = hash;
+    }
+
+    /**
+     * Compile tree files the server sent on request and publish them if they match the hash it announced.
+     *
+     * @return The published tree, or null if none was requested or the files don't match
+     */
+    public static CompiledPerkTree applyRequested(Map<SpellSchool, String> sources) {
+        String expected = requestedHash;
+        requestedHash = null;
+        if (expected == null) {
+            ArsAffinity.LOGGER.warn("Ignoring perk trees the client did not request");
+            return null;
+        }
+        CompiledPerkTree tree = compileRemote(sources);
+        if (!tree.getContentHash().equals(expected)) {
+            ArsAffinity.LOGGER.warn("Discarding perk trees {} from server, expected {}", tree.getContentHash(), expected);
+            return null;
+        }
+        PerkTreeManager.publish(tree);
+        remoteTree = true;
+        return tree;
+    }
+
+    private static CompiledPerkTree compileRemote(Map<SpellSchool, String> sources) {
+        List<String> errors = new ArrayList<>();
+        CompiledPerkTree tree = PerkTreeManager.compile(sources, errors);
+        for (String error : errors) {
+            ArsAffinity.LOGGER.warn("Perk tree from server: {}", error);
+        }
+        return tree;
+    }
+
+    /**
+     * Apply a cached tree with the given hash.
+     *
+     * @return Whether the cache had a valid entry
+     */
+    public static boolean applyCached(String hash) {
+        byte[] cached = readCache(hash);
+        if (cached == null) {
+            return false;
+        }
+        try {
+            // Problems were already logged when the tree was first received
+            CompiledPerkTree tree = PerkTreeManager.compile(decode(cached), new ArrayList<>());
+            if (!tree.getContentHash().equals(hash)) {
+                ArsAffinity.LOGGER.warn("Discarding corrupt perk tree cache entry {}", hash);
+                Files.deleteIfExists(getCacheFile(hash));
+                return false;
+            }
+            PerkTreeManager.publish(tree);
+            remoteTree = true;
+            return true;
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.warn("Failed to read perk tree cache entry {}: {}", hash, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Go back to the client's own perk trees after leaving a server that sent its own.
+     */
+    public static void restoreLocal() {
+        requestedHash = null;
+        if (!remoteTree) {
+            return;
+        }
+        remoteTree = false;
+        try {
+            PerkTreeManager.loadPerkTrees();
+        } catch (RuntimeException e) {
+            ArsAffinity.LOGGER.error("Failed to restore local perk trees: {}", e.getMessage());
+        }
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    public static Path getCacheDir() {
+        return FMLPaths.GAMEDIR.get().resolve("ars_affinity").resolve("perk_tree_cache");
+    }
+
+    private static Path getCacheFile(String hash) {
+        return getCacheDir().resolve(hash + CACHE_SUFFIX);
+    }
+
+    private static byte[] readCache(String hash) {
+        if (!isValidHash(hash)) {
+            return null;
+        }
+        Path file = getCacheFile(hash);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            // Touch the entry so pruning keeps recently used trees
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.warn("Failed to read perk tree cache entry {}: {}", hash, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a tree payload under its hash, dropping the least recently used entries over the limit.
+     */
+    public static void writeCache(String hash, byte[] data) {
+        if (!isValidHash(hash)) {
+            return;
+        }
+        Path directory = getCacheDir();
+        try {
+            Files.createDirectories(directory);
+            Files.write(getCacheFile(hash), data);
+
+            List<Path> entries;
+            try (Stream<Path> files = Files.list(directory)) {
+                entries = files.filter(file -> file.getFileName().toString().endsWith(CACHE_SUFFIX))
+                    .sorted(Comparator.comparingLong(PerkTreeSync::lastModified).reversed())
+                    .toList();
+            }
+            for (int i = MAX_CACHED_TREES; i < entries.size(); i++) {
+                Files.deleteIfExists(entries.get(i));
+            }
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.warn("Failed to write perk tree cache entry {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.github.ars_affinity.perk;
 
-import com.github.ars_affinity.config.ArsAffinityConfig;
-
 /**
  * Helper class for calculating affinity points based on mana usage.
  * Converts the old percentage-based system to a point-based system.
@@ -20,18 +18,14 @@ public class PointCalculationHelper {
      * @return The percentage increase (0.0 to 100.0)
      */
     public static float calculatePercentageIncrease(float mana, float currentPercentage, int totalPointsAcrossAllSchools) {
-        float multiplier = ArsAffinityConfig.AFFINITY_GAIN_MULTIPLIER.get().floatValue();
-        float basePercentageIncrease = mana * multiplier;
+        ScalingTables tables = ScalingTables.get();
+        float basePercentageIncrease = mana * tables.getGainMultiplier();
         
         // Apply school-specific scaling decay - percentage becomes harder to gain as you have more in this school
-        float schoolDecayStrength = ArsAffinityConfig.AFFINITY_SCALING_DECAY_STRENGTH.get().floatValue();
-        float schoolMinimumFactor = ArsAffinityConfig.AFFINITY_SCALING_MINIMUM_FACTOR.get().floatValue();
-        float schoolScalingFactor = calculateScalingFactor((int) currentPercentage, schoolDecayStrength, schoolMinimumFactor);
+        float schoolScalingFactor = tables.schoolFactor((int) currentPercentage);
         
         // Apply global scaling decay - percentage becomes harder to gain as you have more total points across all schools
-        float globalDecayStrength = ArsAffinityConfig.GLOBAL_SCALING_DECAY_STRENGTH.get().floatValue();
-        float globalMinimumFactor = ArsAffinityConfig.GLOBAL_SCALING_MINIMUM_FACTOR.get().floatValue();
-        float globalScalingFactor = calculateScalingFactor(totalPointsAcrossAllSchools, globalDecayStrength, globalMinimumFactor);
+        float globalScalingFactor = tables.globalFactor(totalPointsAcrossAllSchools);
         
         // Combine both scaling factors (multiplicative)
         float combinedScalingFactor = schoolScalingFactor * globalScalingFactor;
@@ -72,13 +66,14 @@ public class PointCalculationHelper {
     /**
      * Calculate the scaling factor for point gain based on current points.
      * This uses the same logarithmic scaling as the old percentage system.
+     * Only used to build and verify {@link ScalingTables}.
      * 
      * @param currentPoints Current total points in the school
      * @param decayStrength How quickly gain decreases (from config)
      * @param minimumFactor Minimum percentage of original gain (from config)
      * @return Scaling factor between minimumFactor and 1.0
      */
-    private static float calculateScalingFactor(int currentPoints, float decayStrength, float minimumFactor) {
+    static float calculateScalingFactor(int currentPoints, float decayStrength, float minimumFactor) {
         if (currentPoints <= 0) {
             return 1.0f;
         }
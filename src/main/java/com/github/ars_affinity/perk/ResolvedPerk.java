@@ -0,0 +1,44 @@
+package com.github.ars_affinity.perk;
+
+import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
+
+/**
+ * Immutable, precomputed view of a single allocated perk type for a player.
+ * Built whenever the player's allocations change so that perk checks on hot paths
+ * never have to scan or copy the allocation map.
+ */
+public final class ResolvedPerk {
+    private final AffinityPerkType perkType;
+    private final PerkAllocation allocation;
+    private final AffinityPerk perk;
+
+    public ResolvedPerk(PerkAllocation allocation, AffinityPerk perk) {
+        this.perkType = allocation.getPerkType();
+        this.allocation = allocation;
+        this.perk = perk;
+    }
+
+    public AffinityPerkType getPerkType() { return perkType; }
+    public PerkAllocation getAllocation() { return allocation; }
+    public SpellSchool getSchool() { return allocation.getSchool(); }
+    public int getTier() { return allocation.getTier(); }
+
+    /**
+     * The loaded perk data for this type, or null if no perk config exists for it.
+     */
+    public AffinityPerk getPerk() { return perk; }
+
+    /**
+     * Resolves the highest tier allocation of a perk type against the loaded perk config.
+     */
+    public static ResolvedPerk resolve(PerkAllocation highestTierAllocation) {
+        AffinityPerk perk = AffinityPerkManager.getHighestLevelPerk(
+            highestTierAllocation.getSchool(), highestTierAllocation.getPerkType());
+        return new ResolvedPerk(highestTierAllocation, perk);
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedPerk{type=" + perkType + ", node=" + allocation.getNodeId() + ", tier=" + getTier() + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.ars_affinity.perk;
 
 import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.capability.AffinityLeaderboards;
 import com.github.ars_affinity.capability.PlayerAffinityData;
 import com.github.ars_affinity.capability.PlayerAffinityDataHelper;
 import com.hollingsworth.arsnouveau.api.spell.SpellSchool;
@@ -93,6 +94,7 @@ public class RespecManager {
         
         // Mark data as dirty
         affinityData.setDirty(true);
+        AffinityLeaderboards.updatePlayer(player);
         
         ArsAffinity.LOGGER.debug("Player {} respecced school {} - returned {} points, cost {} levels", 
             player.getName().getString(), school.getId(), totalPointsToReturn, RESPEC_COST_PER_SCHOOL);
@@ -147,6 +149,7 @@ public class RespecManager {
         
         // Mark data as dirty
         affinityData.setDirty(true);
+        AffinityLeaderboards.updatePlayer(player);
         
         ArsAffinity.LOGGER.debug("Player {} respecced all schools - returned {} total points, cost {} levels", 
             player.getName().getString(), pointsToReturn.values().stream().mapToInt(Integer::intValue).sum(), RESPEC_COST_ALL_SCHOOLS);
@@ -0,0 +1,165 @@
+package com.github.ars_affinity.perk;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import net.neoforged.fml.event.config.ModConfigEvent;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed school and global scaling factors for {@link PointCalculationHelper#calculatePercentageIncrease}.
+ * <p>
+ * Both factors only depend on a small non-negative integer (school percentage, total points), so they are
+ * tabulated from the config when it loads or reloads. Each factor decreases until it hits its configured
+ * minimum, so a table stops at that point and every larger input reads the last entry.
+ * <p>
+ * With {@code diagnostics.verifyScalingTables} enabled, every table is compared against the closed-form formula
+ * when it is built and every lookup is checked again at runtime, logging any mismatch.
+ */
+public final class ScalingTables {
+
+    // Larger than the input where the weakest allowed decay reaches the smallest allowed minimum
+    private static final int MAX_TABLE_SIZE = 1 << 14;
+    private static final float TOLERANCE = 1.0e-6f;
+
+    private static volatile ScalingTables current;
+
+    private final float gainMultiplier;
+    private final float[] schoolFactors;
+    private final float[] globalFactors;
+    private final float schoolDecayStrength;
+    private final float schoolMinimumFactor;
+    private final float globalDecayStrength;
+    private final float globalMinimumFactor;
+    private final boolean verify;
+
+    private ScalingTables(float gainMultiplier, float schoolDecayStrength, float schoolMinimumFactor,
+                          float globalDecayStrength, float globalMinimumFactor, boolean verify) {
+        this.gainMultiplier = gainMultiplier;
+        this.schoolDecayStrength = schoolDecayStrength;
+        this.schoolMinimumFactor = schoolMinimumFactor;
+        this.globalDecayStrength = globalDecayStrength;
+        this.globalMinimumFactor = globalMinimumFactor;
+        this.verify = verify;
+        this.schoolFactors = buildTable(schoolDecayStrength, schoolMinimumFactor);
+        this.globalFactors = buildTable(globalDecayStrength, globalMinimumFactor);
+    }
+
+    /**
+     * Tables for the current config, built on first use.
+     */
+    public static ScalingTables get() {
+        ScalingTables tables = current;
+        if (tables == null) {
+            tables = rebuild();
+        }
+        return tables;
+    }
+
+    /**
+     * Rebuild the tables from the current config values.
+     */
+    public static ScalingTables rebuild() {
+        ScalingTables tables = new ScalingTables(
+            ArsAffinityConfig.AFFINITY_GAIN_MULTIPLIER.get().floatValue(),
+            ArsAffinityConfig.AFFINITY_SCALING_DECAY_STRENGTH.get().floatValue(),
+            ArsAffinityConfig.AFFINITY_SCALING_MINIMUM_FACTOR.get().floatValue(),
+            ArsAffinityConfig.GLOBAL_SCALING_DECAY_STRENGTH.get().floatValue(),
+            ArsAffinityConfig.GLOBAL_SCALING_MINIMUM_FACTOR.get().floatValue(),
+            ArsAffinityConfig.VERIFY_SCALING_TABLES.get());
+        if (tables.verify) {
+            tables.verifyAll();
+        }
+        current = tables;
+        ArsAffinity.LOGGER.debug("Built scaling tables: {} school entries, {} global entries",
+            tables.schoolFactors.length, tables.globalFactors.length);
+        return tables;
+    }
+
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == ArsAffinityConfig.SERVER_CONFIG) {
+            rebuild();
+        }
+    }
+
+    public static void onConfigReloading(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == ArsAffinityConfig.SERVER_CONFIG) {
+            rebuild();
+        }
+    }
+
+    public float getGainMultiplier() {
+        return gainMultiplier;
+    }
+
+    /**
+     * Scaling factor for the current whole percentage in a school.
+     */
+    public float schoolFactor(int currentPercentage) {
+        float factor = lookup(schoolFactors, currentPercentage);
+        if (verify) {
+            check("school", currentPercentage, factor, schoolDecayStrength, schoolMinimumFactor);
+        }
+        return factor;
+    }
+
+    /**
+     * Scaling factor for the total points across all schools.
+     */
+    public float globalFactor(int totalPoints) {
+        float factor = lookup(globalFactors, totalPoints);
+        if (verify) {
+            check("global", totalPoints, factor, globalDecayStrength, globalMinimumFactor);
+        }
+        return factor;
+    }
+
+    /**
+     * Compare every table entry against the closed-form formula.
+     *
+     * @return the number of mismatching entries
+     */
+    public int verifyAll() {
+        int mismatches = 0;
+        for (int i = 0; i < schoolFactors.length; i++) {
+            mismatches += check("school", i, schoolFactors[i], schoolDecayStrength, schoolMinimumFactor) ? 0 : 1;
+        }
+        for (int i = 0; i < globalFactors.length; i++) {
+            mismatches += check("global", i, globalFactors[i], globalDecayStrength, globalMinimumFactor) ? 0 : 1;
+        }
+        // One past the end should read the clamped last entry
+        mismatches += check("school", schoolFactors.length, lookup(schoolFactors, schoolFactors.length), schoolDecayStrength, schoolMinimumFactor) ? 0 : 1;
+        mismatches += check("global", globalFactors.length, lookup(globalFactors, globalFactors.length), globalDecayStrength, globalMinimumFactor) ? 0 : 1;
+
+        if (mismatches == 0) {
+            ArsAffinity.LOGGER.info("Scaling tables match the closed-form formula");
+        }
+        return mismatches;
+    }
+
+    private static float lookup(float[] table, int input) {
+        return table[Math.min(Math.max(input, 0), table.length - 1)];
+    }
+
+    private static boolean check(String table, int input, float factor, float decayStrength, float minimumFactor) {
+        float expected = PointCalculationHelper.calculateScalingFactor(input, decayStrength, minimumFactor);
+        if (Math.abs(expected - factor) > TOLERANCE) {
+            ArsAffinity.LOGGER.warn("Scaling table mismatch ({}, input {}): table {} vs formula {}", table, input, factor, expected);
+            return false;
+        }
+        return true;
+    }
+
+    private static float[] buildTable(float decayStrength, float minimumFactor) {
+        float[] table = new float[MAX_TABLE_SIZE];
+        int size = 0;
+        while (size < MAX_TABLE_SIZE) {
+            float factor = PointCalculationHelper.calculateScalingFactor(size, decayStrength, minimumFactor);
+            table[size++] = factor;
+            if (factor <= minimumFactor) {
+                break;
+            }
+        }
+        return size == MAX_TABLE_SIZE ? table : Arrays.copyOf(table, size);
+    }
+}
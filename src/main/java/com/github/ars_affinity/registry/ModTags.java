@@ -0,0 +1,13 @@
+package com.github.ars_affinity.registry;
+
+import com.github.ars_affinity.ArsAffinity;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+
+public class ModTags {
+    public static class Blocks {
+        // Blocks the Cold Walker perk speeds players up on
+        public static final TagKey<Block> COLD_WALKER_BLOCKS = TagKey.create(Registries.BLOCK, ArsAffinity.prefix("cold_walker_blocks"));
+    }
+}
@@ -44,6 +44,27 @@ public class SchoolRelationshipHelper {
             SpellSchools.MANIPULATION
     };
 
+    /**
+     * Stable index of a school within {@link #ALL_SCHOOLS}, used for compact wire and storage formats.
+     *
+     * @return The index, or -1 if the school is not supported
+     */
+    public static int getSchoolIndex(SpellSchool school) {
+        for (int i = 0; i < ALL_SCHOOLS.length; i++) {
+            if (ALL_SCHOOLS[i].equals(school)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static SpellSchool getSchoolByIndex(int index) {
+        if (index < 0 || index >= ALL_SCHOOLS.length) {
+            return null;
+        }
+        return ALL_SCHOOLS[index];
+    }
+
     public static boolean areOpposites(SpellSchool school1, SpellSchool school2) {
         if (school1 == null || school2 == null) return false;
         return school1.equals(getOppositeSchool(school2));
@@ -2,19 +2,48 @@ package com.github.ars_affinity.util;
 
 import com.github.ars_affinity.ArsAffinity;
 import com.github.ars_affinity.config.ArsAffinityConfig;
+import com.hollingsworth.arsnouveau.api.registry.GlyphRegistry;
 import com.hollingsworth.arsnouveau.api.spell.AbstractSpellPart;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility class to check if glyphs are blacklisted from affinity progress tracking.
+ * <p>
+ * Blacklist entries can be a glyph id ({@code ars_nouveau:glyph_break}), every glyph of a mod
+ * ({@code modid:*}) or a glyph item tag ({@code #modid:tag}). The entries are compiled against the glyph
+ * registry on first use into an identity set of spell parts, and recompiled after the config or tags reload,
+ * so checking a glyph is a single set lookup.
  */
 public class GlyphBlacklistHelper {
-    
+
+    private static final String WILDCARD_SUFFIX = ":*";
+    private static final String TAG_PREFIX = "#";
+
+    // Null until the next check compiles it
+    private static volatile CompiledBlacklist compiled;
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private record CompiledBlacklist(Set<AbstractSpellPart> parts, Set<ResourceLocation> ids, Set<String> namespaces) {
+        static final CompiledBlacklist EMPTY = new CompiledBlacklist(Set.of(), Set.of(), Set.of());
+    }
+
     /**
      * Checks if a glyph is blacklisted from affinity progress tracking.
-     * 
+     *
      * @param glyph The glyph to check
      * @return true if the glyph is blacklisted, false otherwise
      */
@@ -22,42 +51,12 @@ public class GlyphBlacklistHelper {
         if (glyph == null) {
             return false;
         }
-        
-        try {
-            // Get the registry name of the glyph
-            ResourceLocation registryName = glyph.getRegistryName();
-            if (registryName == null) {
-                ArsAffinity.LOGGER.debug("Glyph has no registry name, cannot check blacklist");
-                return false;
-            }
-            
-            // Convert to string format for comparison
-            String glyphId = registryName.toString();
-            
-            // Check against the blacklist
-            List<? extends String> blacklist = ArsAffinityConfig.GLYPH_BLACKLIST.get();
-            if (blacklist == null || blacklist.isEmpty()) {
-                return false;
-            }
-            
-            boolean isBlacklisted = blacklist.contains(glyphId);
-            
-            if (isBlacklisted) {
-                ArsAffinity.LOGGER.debug("Glyph {} is blacklisted from affinity tracking", glyphId);
-            }
-            
-            return isBlacklisted;
-            
-        } catch (Exception e) {
-            ArsAffinity.LOGGER.error("Error checking if glyph is blacklisted: {}", e.getMessage());
-            // If there's any error checking the blacklist, default to not blacklisted
-            return false;
-        }
+        return getCompiled().parts().contains(glyph);
     }
-    
+
     /**
      * Checks if a glyph ID string is blacklisted.
-     * 
+     *
      * @param glyphId The glyph ID to check (format: "modid:glyph_name")
      * @return true if the glyph ID is blacklisted, false otherwise
      */
@@ -65,28 +64,146 @@ public class GlyphBlacklistHelper {
         if (glyphId == null || glyphId.isEmpty()) {
             return false;
         }
-        
-        try {
-            List<? extends String> blacklist = ArsAffinityConfig.GLYPH_BLACKLIST.get();
-            if (blacklist == null || blacklist.isEmpty()) {
-                return false;
+
+        ResourceLocation id = ResourceLocation.tryParse(glyphId);
+        if (id == null) {
+            return false;
+        }
+
+        CompiledBlacklist blacklist = getCompiled();
+        if (blacklist.ids().contains(id) || blacklist.namespaces().contains(id.getNamespace())) {
+            return true;
+        }
+        // Tag entries only resolve against registered glyphs
+        AbstractSpellPart glyph = GlyphRegistry.getSpellpartMap().get(id);
+        return glyph != null && blacklist.parts().contains(glyph);
+    }
+
+    /**
+     * Number of registered glyphs the current blacklist matches.
+     */
+    public static int getBlacklistedGlyphCount() {
+        return getCompiled().parts().size();
+    }
+
+    /**
+     * Drops the compiled blacklist so the next check rebuilds it from the config.
+     */
+    public static void invalidate() {
+        // Bump first so a compile racing with this call sees the change after publishing
+        generation.incrementAndGet();
+        compiled = null;
+    }
+
+    /**
+     * Changes every time the blacklist is invalidated, for caches that depend on it.
+     */
+    public static int getGeneration() {
+        return generation.get();
+    }
+
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == ArsAffinityConfig.SERVER_CONFIG) {
+            invalidate();
+        }
+    }
+
+    public static void onConfigReloading(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == ArsAffinityConfig.SERVER_CONFIG) {
+            invalidate();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        invalidate();
+    }
+
+    private static CompiledBlacklist getCompiled() {
+        CompiledBlacklist current = compiled;
+        if (current == null) {
+            int expectedGeneration = generation.get();
+            current = compile();
+            if (current == null) {
+                return CompiledBlacklist.EMPTY;
             }
-            
-            boolean isBlacklisted = blacklist.contains(glyphId);
-            
-            if (isBlacklisted) {
-                ArsAffinity.LOGGER.debug("Glyph ID {} is blacklisted from affinity tracking", glyphId);
+            compiled = current;
+            if (generation.get() != expectedGeneration) {
+                // Invalidated while compiling, e.g. by the config watcher thread; the result may be from the old config
+                compiled = null;
             }
-            
-            return isBlacklisted;
-            
+        }
+        return current;
+    }
+
+    private static CompiledBlacklist compile() {
+        List<? extends String> entries;
+        try {
+            entries = ArsAffinityConfig.GLYPH_BLACKLIST.get();
         } catch (Exception e) {
-            ArsAffinity.LOGGER.error("Error checking if glyph ID {} is blacklisted: {}", glyphId, e.getMessage());
-            // If there's any error checking the blacklist, default to not blacklisted
+            // Config not loaded yet, don't cache so the next check tries again
+            ArsAffinity.LOGGER.error("Error reading glyph blacklist: {}", e.getMessage());
+            return null;
+        }
+        if (entries == null || entries.isEmpty()) {
+            return CompiledBlacklist.EMPTY;
+        }
+
+        Set<ResourceLocation> ids = new HashSet<>();
+        Set<String> namespaces = new HashSet<>();
+        List<TagKey<Item>> tags = new ArrayList<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.startsWith(TAG_PREFIX)) {
+                ResourceLocation tagId = ResourceLocation.tryParse(trimmed.substring(TAG_PREFIX.length()));
+                if (tagId != null) {
+                    tags.add(TagKey.create(Registries.ITEM, tagId));
+                    continue;
+                }
+            } else if (trimmed.endsWith(WILDCARD_SUFFIX)) {
+                String namespace = trimmed.substring(0, trimmed.length() - WILDCARD_SUFFIX.length());
+                if (ResourceLocation.isValidNamespace(namespace)) {
+                    namespaces.add(namespace);
+                    continue;
+                }
+            } else {
+                ResourceLocation id = ResourceLocation.tryParse(trimmed);
+                if (id != null) {
+                    ids.add(id);
+                    continue;
+                }
+            }
+            ArsAffinity.LOGGER.warn("Ignoring invalid glyph blacklist entry: '{}'", entry);
+        }
+
+        Set<AbstractSpellPart> parts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AbstractSpellPart part : GlyphRegistry.getSpellpartMap().values()) {
+            ResourceLocation id = part.getRegistryName();
+            if (id == null) {
+                continue;
+            }
+            if (ids.contains(id) || namespaces.contains(id.getNamespace()) || hasAnyTag(part, tags)) {
+                parts.add(part);
+            }
+        }
+
+        ArsAffinity.LOGGER.debug("Compiled glyph blacklist: {} entries matching {} glyphs", entries.size(), parts.size());
+        return new CompiledBlacklist(parts, Set.copyOf(ids), Set.copyOf(namespaces));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static boolean hasAnyTag(AbstractSpellPart part, List<TagKey<Item>> tags) {
+        if (tags.isEmpty() || part.getGlyph() == null) {
             return false;
         }
+        for (TagKey<Item> tag : tags) {
+            if (part.getGlyph().builtInRegistryHolder().is(tag)) {
+                return true;
+            }
+        }
+        return false;
     }
-    
+
     /**
      * Logs the current blacklist configuration for debugging purposes.
      */
@@ -105,4 +222,4 @@ public class GlyphBlacklistHelper {
             ArsAffinity.LOGGER.error("Error logging blacklist configuration: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
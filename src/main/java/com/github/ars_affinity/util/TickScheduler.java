@@ -0,0 +1,184 @@
+package com.github.ars_affinity.util;
+
+import com.github.ars_affinity.ArsAffinity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server-tick driven scheduler for timed effect work (delayed dash hits, follow-up particle updates,
+ * temporary buff removal). Tasks run on the server thread at the end of the tick they are due in.
+ * <p>
+ * Tasks are kept in a timing wheel of {@link #WHEEL_SIZE} buckets indexed by due tick, so each tick only
+ * looks at the tasks in one bucket. Tasks further out than one revolution stay in their bucket until their
+ * round comes up. Must only be used from the server thread.
+ */
+public class TickScheduler {
+
+    private TickScheduler() {}
+
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    @SuppressWarnings("unchecked")
+    private static final List<ScheduledTask>[] wheel = new List[WHEEL_SIZE];
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    private static long currentTick;
+    private static int liveTasks;
+    private static long totalScheduled;
+    private static long totalExecuted;
+    private static long totalCancelled;
+
+    /**
+     * Handle to a scheduled task that can be used to cancel it before it runs.
+     */
+    public static class TaskHandle {
+        private final ScheduledTask task;
+
+        private TaskHandle(ScheduledTask task) {
+            this.task = task;
+        }
+
+        /**
+         * Cancel the task. Does nothing if it already finished or was cancelled.
+         */
+        public void cancel() {
+            if (!task.done) {
+                task.done = true;
+                task.cancelled = true;
+                liveTasks--;
+                totalCancelled++;
+            }
+        }
+
+        public boolean isCancelled() {
+            return task.cancelled;
+        }
+
+        public boolean isDone() {
+            return task.done;
+        }
+    }
+
+    private static class ScheduledTask {
+        private final Runnable action;
+        private final int period;
+        private int runsRemaining;
+        private long dueTick;
+        private boolean done;
+        private boolean cancelled;
+
+        private ScheduledTask(Runnable action, long dueTick, int period, int runs) {
+            this.action = action;
+            this.dueTick = dueTick;
+            this.period = period;
+            this.runsRemaining = runs;
+        }
+    }
+
+    /**
+     * Run a task once after the given number of ticks (at least one).
+     */
+    public static TaskHandle schedule(int delayTicks, Runnable task) {
+        return scheduleRepeating(delayTicks, 1, 1, task);
+    }
+
+    /**
+     * Run a task {@code runs} times, first after {@code delayTicks} and then every {@code periodTicks}.
+     */
+    public static TaskHandle scheduleRepeating(int delayTicks, int periodTicks, int runs, Runnable task) {
+        ScheduledTask scheduled = new ScheduledTask(task, currentTick + Math.max(1, delayTicks), Math.max(1, periodTicks), Math.max(1, runs));
+        insert(scheduled);
+        liveTasks++;
+        totalScheduled++;
+        return new TaskHandle(scheduled);
+    }
+
+    private static void insert(ScheduledTask task) {
+        wheel[(int) (task.dueTick & WHEEL_MASK)].add(task);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        tick();
+    }
+
+    private static void tick() {
+        currentTick++;
+        int index = (int) (currentTick & WHEEL_MASK);
+        List<ScheduledTask> bucket = wheel[index];
+        if (bucket.isEmpty()) {
+            return;
+        }
+
+        // Swap in a fresh bucket so tasks scheduled while running land safely
+        wheel[index] = new ArrayList<>();
+        for (ScheduledTask task : bucket) {
+            if (task.done) {
+                continue;
+            }
+            if (task.dueTick > currentTick) {
+                // Not this revolution
+                wheel[index].add(task);
+                continue;
+            }
+
+            try {
+                task.action.run();
+            } catch (Exception e) {
+                ArsAffinity.LOGGER.error("Scheduled task failed: {}", e.getMessage(), e);
+            }
+            totalExecuted++;
+
+            // The task may have cancelled itself while running
+            if (task.done) {
+                continue;
+            }
+            if (--task.runsRemaining > 0) {
+                task.dueTick = currentTick + task.period;
+                insert(task);
+            } else {
+                task.done = true;
+                liveTasks--;
+            }
+        }
+    }
+
+    /**
+     * Drop all pending tasks, e.g. when the server stops.
+     */
+    public static void clear() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            for (ScheduledTask task : wheel[i]) {
+                task.done = true;
+                task.cancelled = true;
+            }
+            wheel[i] = new ArrayList<>();
+        }
+        liveTasks = 0;
+    }
+
+    public static int getLiveTaskCount() {
+        return liveTasks;
+    }
+
+    public static long getTotalScheduled() {
+        return totalScheduled;
+    }
+
+    public static long getTotalExecuted() {
+        return totalExecuted;
+    }
+
+    public static long getTotalCancelled() {
+        return totalCancelled;
+    }
+}
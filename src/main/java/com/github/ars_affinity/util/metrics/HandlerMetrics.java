@@ -0,0 +1,199 @@
+package com.github.ars_affinity.util.metrics;
+
+import com.github.ars_affinity.ArsAffinity;
+import com.github.ars_affinity.config.ArsAffinityConfig;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Per-handler timing and packet counts for the mod's event handlers, shown by {@code /ars-affinity stats}.
+ * <p>
+ * Handler classes registered through {@link #register(IEventBus, Class)} get each {@link SubscribeEvent}
+ * method wrapped in a timed listener. Packets sent through {@link com.github.ars_affinity.common.network.Networking}
+ * are counted per payload type and charged to the handler running on the sending thread, if any.
+ */
+public class HandlerMetrics {
+
+    private HandlerMetrics() {}
+
+    private static final Map<String, HandlerStats> handlers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> packetsByType = new ConcurrentHashMap<>();
+
+    // Handler currently running on each thread, for packet attribution
+    private static final ThreadLocal<CurrentHandler> currentHandler = ThreadLocal.withInitial(CurrentHandler::new);
+
+    private static final class CurrentHandler {
+        private HandlerStats stats;
+    }
+
+    private static int ticksSinceExport;
+
+    /**
+     * Stats for a handler, created on first use.
+     */
+    public static HandlerStats handler(String name) {
+        return handlers.computeIfAbsent(name, HandlerStats::new);
+    }
+
+    /**
+     * Register a class's static {@link SubscribeEvent} methods like {@link IEventBus#register(Object)} does,
+     * timing every call under {@code ClassName.methodName}.
+     */
+    public static void register(IEventBus bus, Class<?> handlerClass) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(handlerClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access event handler class " + handlerClass.getName(), e);
+        }
+
+        for (Method method : handlerClass.getDeclaredMethods()) {
+            SubscribeEvent subscribe = method.getAnnotation(SubscribeEvent.class);
+            if (subscribe == null) {
+                continue;
+            }
+            if (!Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                throw new IllegalArgumentException("Event handler " + handlerClass.getName() + "." + method.getName()
+                    + " must be static and take a single event");
+            }
+
+            Class<? extends Event> eventType = method.getParameterTypes()[0].asSubclass(Event.class);
+            HandlerStats stats = handler(handlerClass.getSimpleName() + "." + method.getName());
+            addListener(bus, subscribe, eventType, timed(stats, bind(lookup, method, eventType)));
+        }
+    }
+
+    private static <T extends Event> void addListener(IEventBus bus, SubscribeEvent subscribe, Class<T> eventType, Consumer<Event> listener) {
+        bus.addListener(subscribe.priority(), subscribe.receiveCanceled(), eventType, listener::accept);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Event> bind(MethodHandles.Lookup lookup, Method method, Class<?> eventType) {
+        try {
+            // Same kind of direct binding the event bus uses, so the wrapper adds no reflection per call
+            MethodHandle target = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(Consumer.class),
+                MethodType.methodType(void.class, Object.class),
+                target,
+                MethodType.methodType(void.class, eventType));
+            return (Consumer<Event>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind event handler " + method, e);
+        }
+    }
+
+    private static Consumer<Event> timed(HandlerStats stats, Consumer<Event> listener) {
+        return event -> {
+            CurrentHandler current = currentHandler.get();
+            HandlerStats previous = current.stats;
+            current.stats = stats;
+            long start = System.nanoTime();
+            try {
+                listener.accept(event);
+            } finally {
+                stats.record(System.nanoTime() - start);
+                current.stats = previous;
+            }
+        };
+    }
+
+    /**
+     * Count a packet being sent, against its type and the handler that sent it.
+     */
+    public static void recordPacket(CustomPacketPayload payload) {
+        packetsByType.computeIfAbsent(payload.type().id().toString(), id -> new LongAdder()).increment();
+        HandlerStats sender = currentHandler.get().stats;
+        if (sender != null) {
+            sender.recordPacket();
+        }
+    }
+
+    /**
+     * All handlers, most total time first.
+     */
+    public static List<HandlerStats> getHandlers() {
+        List<HandlerStats> sorted = new ArrayList<>(handlers.values());
+        sorted.sort(Comparator.comparingLong(HandlerStats::getTotalNanos).reversed());
+        return sorted;
+    }
+
+    /**
+     * Packets sent per payload type, most first.
+     */
+    public static List<Map.Entry<String, Long>> getPacketCounts() {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : packetsByType.entrySet()) {
+            counts.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+        }
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return counts;
+    }
+
+    public static void reset() {
+        for (HandlerStats stats : handlers.values()) {
+            stats.reset();
+        }
+        packetsByType.clear();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        int interval = ArsAffinityConfig.METRICS_EXPORT_INTERVAL_TICKS.get();
+        if (interval <= 0 || ++ticksSinceExport < interval) {
+            return;
+        }
+        ticksSinceExport = 0;
+
+        try {
+            exportCsv(FMLPaths.CONFIGDIR.get().resolve("ars_affinity").resolve("metrics.csv"));
+        } catch (IOException e) {
+            ArsAffinity.LOGGER.error("Failed to export handler metrics: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the current handler and packet counters to a CSV file, replacing it.
+     */
+    public static void exportCsv(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("kind,name,invocations,total_ns,avg_ns,p99_ns,packets");
+            writer.newLine();
+            for (HandlerStats stats : getHandlers()) {
+                writer.write(String.format("handler,%s,%d,%d,%d,%d,%d", stats.getName(), stats.getInvocations(),
+                    stats.getTotalNanos(), stats.getAverageNanos(), stats.getP99Nanos(), stats.getPackets()));
+                writer.newLine();
+            }
+            for (Map.Entry<String, Long> entry : getPacketCounts()) {
+                writer.write(String.format("packet,%s,,,,,%d", entry.getKey(), entry.getValue()));
+                writer.newLine();
+            }
+        }
+    }
+}
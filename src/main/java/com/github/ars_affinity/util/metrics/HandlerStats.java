@@ -0,0 +1,95 @@
+package com.github.ars_affinity.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation count, time and packet counters for one handler. Counters are striped {@link LongAdder}s so
+ * handlers on different threads don't contend. Durations also go into a histogram with power of two
+ * buckets, which is what {@link #getP99Nanos()} is read from.
+ */
+public class HandlerStats {
+
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder packets = new LongAdder();
+    // Bucket i counts durations below 2^i nanoseconds and at least 2^(i-1)
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    HandlerStats(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record one invocation that took the given time.
+     */
+    public void record(long nanos) {
+        invocations.increment();
+        totalNanos.add(nanos);
+        histogram[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)))].increment();
+    }
+
+    void recordPacket() {
+        packets.increment();
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getPackets() {
+        return packets.sum();
+    }
+
+    public long getAverageNanos() {
+        long count = getInvocations();
+        return count > 0 ? getTotalNanos() / count : 0;
+    }
+
+    /**
+     * Upper bound of the histogram bucket holding the 99th percentile, so accurate to within a factor of two.
+     */
+    public long getP99Nanos() {
+        long count = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = histogram[i].sum();
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(count * 0.99);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= threshold) {
+                return i == 0 ? 0 : 1L << Math.min(62, i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    void reset() {
+        invocations.reset();
+        totalNanos.reset();
+        packets.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+    }
+}
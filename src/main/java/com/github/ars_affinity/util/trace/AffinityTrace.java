@@ -0,0 +1,160 @@
+package com.github.ars_affinity.util.trace;
+
+import com.github.ars_affinity.ArsAffinity;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Low overhead tracing for hot handlers, used instead of debug logging on paths that run every spell,
+ * hit or tick. Events are recorded as primitives into a per-thread ring buffer of {@link #CAPACITY} entries
+ * and only turned into text when dumped with {@code /ars-affinity trace dump}.
+ * <p>
+ * All subsystems start disabled; a disabled {@link #record} call costs one volatile read.
+ */
+public class AffinityTrace {
+
+    private AffinityTrace() {}
+
+    public static final int CAPACITY = 4096;
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static volatile int enabledMask;
+
+    private static final List<TraceBuffer> buffers = new CopyOnWriteArrayList<>();
+    // Bumped by reset; buffers from an older generation are no longer listed and get replaced on next use
+    private static volatile int generation;
+
+    private static final ThreadLocal<TraceBuffer> localBuffer = ThreadLocal.withInitial(AffinityTrace::register);
+
+    private static TraceBuffer register() {
+        TraceBuffer buffer = new TraceBuffer(Thread.currentThread(), generation, CAPACITY);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    public static boolean isEnabled(TraceSubsystem subsystem) {
+        return (enabledMask & subsystem.mask()) != 0;
+    }
+
+    public static synchronized void setEnabled(TraceSubsystem subsystem, boolean enabled) {
+        enabledMask = enabled ? enabledMask | subsystem.mask() : enabledMask & ~subsystem.mask();
+    }
+
+    public static Set<TraceSubsystem> getEnabled() {
+        Set<TraceSubsystem> enabled = EnumSet.noneOf(TraceSubsystem.class);
+        for (TraceSubsystem subsystem : TraceSubsystem.values()) {
+            if (isEnabled(subsystem)) {
+                enabled.add(subsystem);
+            }
+        }
+        return enabled;
+    }
+
+    public static void record(TraceEvent event, int a, int b, float value) {
+        if ((enabledMask & event.getSubsystem().mask()) != 0) {
+            TraceBuffer buffer = localBuffer.get();
+            if (buffer.getGeneration() != generation) {
+                buffer = register();
+                localBuffer.set(buffer);
+            }
+            buffer.record(event, a, b, value);
+        }
+    }
+
+    public static void record(TraceEvent event, int a, int b) {
+        record(event, a, b, 0.0f);
+    }
+
+    public static void record(TraceEvent event, int a) {
+        record(event, a, 0, 0.0f);
+    }
+
+    /**
+     * Total number of events recorded since the last clear, including ones already overwritten.
+     */
+    public static long getRecordedCount() {
+        long total = 0;
+        for (TraceBuffer buffer : buffers) {
+            total += buffer.getWritten();
+        }
+        return total;
+    }
+
+    public static void clear() {
+        pruneDeadThreads();
+        for (TraceBuffer buffer : buffers) {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Drop every buffer, e.g. when the server stops, so threads of a finished session are not kept around.
+     * Threads that record again get a new buffer.
+     */
+    public static synchronized void reset() {
+        generation++;
+        buffers.clear();
+    }
+
+    private static void pruneDeadThreads() {
+        buffers.removeIf(buffer -> !buffer.isOwnerAlive());
+    }
+
+    /**
+     * Write every thread's retained events to a new file in the game's logs directory.
+     * Times are relative to the moment of the dump.
+     *
+     * @return The file written
+     */
+    public static Path dump() throws IOException {
+        Path file = FMLPaths.GAMEDIR.get().resolve("logs")
+            .resolve("ars_affinity-trace-" + LocalDateTime.now().format(FILE_TIME) + ".log");
+        Files.createDirectories(file.getParent());
+
+        long now = System.nanoTime();
+        List<TraceBuffer> snapshot = new ArrayList<>(buffers);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Ars Affinity trace, enabled: " + getEnabled());
+            writer.newLine();
+            for (TraceBuffer buffer : snapshot) {
+                writer.newLine();
+                writer.write("[" + buffer.getThreadName() + "] " + buffer.getWritten() + " events recorded, last "
+                    + Math.min(buffer.getWritten(), CAPACITY) + " retained");
+                writer.newLine();
+                IOException[] failure = new IOException[1];
+                buffer.forEach((nanoTime, event, a, b, value) -> {
+                    if (failure[0] != null) {
+                        return;
+                    }
+                    try {
+                        writer.write(String.format("%12.3fms %-24s %s", (nanoTime - now) / 1_000_000.0, event, event.format(a, b, value)));
+                        writer.newLine();
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+        }
+        // Finished threads' events have now been written once
+        pruneDeadThreads();
+
+        ArsAffinity.LOGGER.info("Wrote affinity trace to {}", file);
+        return file;
+    }
+}
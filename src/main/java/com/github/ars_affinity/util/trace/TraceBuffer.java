@@ -0,0 +1,90 @@
+package com.github.ars_affinity.util.trace;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Fixed size ring of trace entries owned by one thread. All storage is allocated up front and entries are
+ * plain primitives, so recording never allocates. Only the owning thread writes; dumps read it without
+ * locking and may see a partially written newest entry, which is acceptable for diagnostics.
+ */
+final class TraceBuffer {
+
+    private final String threadName;
+    // Weak so a buffer never keeps a finished thread reachable
+    private final WeakReference<Thread> owner;
+    private final int generation;
+    private final int mask;
+    private final long[] times;
+    private final int[] events;
+    private final int[] firstArgs;
+    private final int[] secondArgs;
+    private final float[] values;
+    private volatile long written;
+
+    TraceBuffer(Thread owner, int generation, int capacity) {
+        this.threadName = owner.getName();
+        this.owner = new WeakReference<>(owner);
+        this.generation = generation;
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.events = new int[capacity];
+        this.firstArgs = new int[capacity];
+        this.secondArgs = new int[capacity];
+        this.values = new float[capacity];
+    }
+
+    void record(TraceEvent event, int a, int b, float value) {
+        long index = written;
+        int slot = (int) (index & mask);
+        times[slot] = System.nanoTime();
+        events[slot] = event.ordinal();
+        firstArgs[slot] = a;
+        secondArgs[slot] = b;
+        values[slot] = value;
+        written = index + 1;
+    }
+
+    String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * The {@link AffinityTrace} generation this buffer was registered in.
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    boolean isOwnerAlive() {
+        Thread thread = owner.get();
+        return thread != null && thread.isAlive();
+    }
+
+    long getWritten() {
+        return written;
+    }
+
+    void clear() {
+        written = 0;
+    }
+
+    /**
+     * Visit the retained entries from oldest to newest.
+     */
+    void forEach(EntryVisitor visitor) {
+        long end = written;
+        long start = Math.max(0, end - times.length);
+        for (long i = start; i < end; i++) {
+            int slot = (int) (i & mask);
+            TraceEvent event = TraceEvent.byOrdinal(events[slot]);
+            if (event != null) {
+                visitor.visit(times[slot], event, firstArgs[slot], secondArgs[slot], values[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(long nanoTime, TraceEvent event, int a, int b, float value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.ars_affinity.util.trace;
+
+/**
+ * Typed trace events. Each event carries two ints and a float; the format says which of them it uses
+ * and is only applied when a dump is written. Entity arguments are entity ids, schools are indices
+ * into {@link com.github.ars_affinity.school.SchoolRelationshipHelper#ALL_SCHOOLS}.
+ */
+public enum TraceEvent {
+    // Progress
+    GLYPH_BLACKLISTED(TraceSubsystem.PROGRESS, "caster=%d"),
+    PROGRESS_FLUSHED(TraceSubsystem.PROGRESS, "player=%d school=%d increase=%.4f%%"),
+    POINTS_AWARDED(TraceSubsystem.PROGRESS, "player=%1$d school=%2$d points=%3$.0f"),
+
+    // Passive perks
+    FIRE_THORNS(TraceSubsystem.PERKS, "player=%d attacker=%d chance=%.2f"),
+    SOULSPIKE(TraceSubsystem.PERKS, "player=%d attacker=%d chance=%.2f"),
+    MANA_TAP(TraceSubsystem.PERKS, "player=%1$d mana=%3$.1f"),
+    LICH_FEAST(TraceSubsystem.PERKS, "player=%d killed=%d health=%.1f"),
+    ROTTING_GUISE(TraceSubsystem.PERKS, "player=%1$d mob=%2$d"),
+    HEALING_AMPLIFIED(TraceSubsystem.PERKS, "player=%d target=%d amplification=%.2f"),
+    HUNGER_COMPENSATED(TraceSubsystem.PERKS, "player=%d target=%d reduction=%.2f"),
+    HYDRATION(TraceSubsystem.PERKS, "player=%d wetTicks=%d maxAmplification=%.1f"),
+    HYDRATION_LOST(TraceSubsystem.PERKS, "player=%1$d"),
+
+    // Summons
+    SUMMON_HEALTH(TraceSubsystem.SUMMONS, "player=%d amplifier=%d amount=%.2f"),
+    SUMMON_DEFENSE(TraceSubsystem.SUMMONS, "player=%1$d tier=%2$d"),
+    SUMMONING_POWER(TraceSubsystem.SUMMONS, "player=%d durationTicks=%d bonus=%.1f"),
+    SUMMONING_POWER_EXPIRED(TraceSubsystem.SUMMONS, "player=%1$d"),
+    UNSTABLE_SUMMON(TraceSubsystem.SUMMONS, "player=%d summon=%d chance=%.2f"),
+
+    // Particles
+    SPIRAL_SPAWNED(TraceSubsystem.PARTICLES, "anchor=%1$d spawned=%2$d requested=%3$.0f");
+
+    private static final TraceEvent[] VALUES = values();
+
+    private final TraceSubsystem subsystem;
+    private final String format;
+
+    TraceEvent(TraceSubsystem subsystem, String format) {
+        this.subsystem = subsystem;
+        this.format = format;
+    }
+
+    public TraceSubsystem getSubsystem() {
+        return subsystem;
+    }
+
+    String format(int a, int b, float value) {
+        return String.format(format, a, b, value);
+    }
+
+    static TraceEvent byOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
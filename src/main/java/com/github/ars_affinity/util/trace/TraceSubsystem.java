@@ -0,0 +1,15 @@
+package com.github.ars_affinity.util.trace;
+
+/**
+ * Groups of trace events that can be switched on and off together.
+ */
+public enum TraceSubsystem {
+    PROGRESS,
+    PERKS,
+    SUMMONS,
+    PARTICLES;
+
+    final int mask() {
+        return 1 << ordinal();
+    }
+}